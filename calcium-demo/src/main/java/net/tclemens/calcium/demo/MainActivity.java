@@ -17,27 +17,129 @@
 package net.tclemens.calcium.demo;
 
 import android.app.Activity;
+import android.content.Intent;
 import android.os.Bundle;
+import android.util.Log;
+import android.view.SurfaceView;
+import android.view.View;
 
+import net.tclemens.calcium.demo.benchmark.Benchmark;
+import net.tclemens.calcium.demo.benchmark.BenchmarkFactory;
+import net.tclemens.calcium.demo.metric.Allocations;
+import net.tclemens.calcium.demo.metric.Metrics;
+import net.tclemens.calcium.demo.resolution.Resolution;
+import net.tclemens.calcium.demo.resolution.ResolutionFactory;
+import net.tclemens.calcium.demo.resource.Ledger;
+import net.tclemens.calcium.demo.resource.Resources;
+import net.tclemens.calcium.demo.trace.Trace;
+import net.tclemens.calcium.demo.trace.TraceFactory;
 import net.tclemens.calcium.engine.Engine;
 import net.tclemens.calcium.engine.EngineFactory;
 import net.tclemens.calcium.demo.state.StateFactory;
+import net.tclemens.calcium.engine.updates.base.Updatable;
+
+import java.io.File;
+import java.io.IOException;
 
 /**
- * This class represents the entry point of the app
+ * This class represents the entry point of the app, which runs the stress benchmark when launched with a positive
+ * <tt>boxes</tt> extra, for example:
+ *
+ * <pre>
+ * adb shell am start -n net.tclemens.calcium.demo/.MainActivity --ei boxes 16 --ei labels 4 --ei step 16
+ * adb logcat -s Benchmark
+ * </pre>
  *
  * @author Tim Clemens
  */
 public class MainActivity extends Activity {
 
+    /** The extra with the number of boxes in the first step of the stress benchmark */
+    private static final String BOXES = "boxes";
+
+    /** The extra with the number of labels in every step of the stress benchmark */
+    private static final String LABELS = "labels";
+
+    /** The extra with the number of boxes added after each sustainable step of the stress benchmark */
+    private static final String STEP = "step";
+
+    /**
+     * The extra with the frame time budget of the stress benchmark and the scaled swarm (in milliseconds). The scaled
+     * swarm needs a budget above the 17.5 milliseconds of a 60 Hz frame on time.
+     */
+    private static final String BUDGET = "budget";
+
+    /**
+     * The extra enabling the batching of the boxes of the stress benchmark by color, on by default. Setting it to
+     * <tt>false</tt> draws every box with its own draw call, still sharing the material of each color, for comparison
+     * with runs from before the boxes were batched.
+     */
+    private static final String BATCHED = "batched";
+
+    /** The extra with the number of boxes in the swarm, which replaces the demo when positive */
+    private static final String SWARM = "swarm";
+
+    /** The extra with the number of simulation steps per second of the swarm */
+    private static final String RATE = "rate";
+
+    /** The extra enabling collisions between the boxes of the swarm, which then bounce off each other in the view */
+    private static final String COLLIDE = "collide";
+
+    /**
+     * The extra enabling the dynamic resolution of the swarm, which is lowered whenever the average frame time exceeds
+     * the budget
+     */
+    private static final String SCALED = "scaled";
+
+    /**
+     * The extra enabling the preparation of the splash and first moving states while the engine is created, on by
+     * default. Setting it to <tt>false</tt> prepares them only once they are needed, for comparison of the time to
+     * the first frame reported as <tt>startup.frame</tt>.
+     */
+    private static final String PREPARE = "prepare";
+
+    /**
+     * The extra enabling the frame trace, which records every frame and transition since the activity was created to
+     * {@link #TRACE_FILE} for <tt>TraceAnalyzer</tt>, in the unit test sources, to read on a desktop JVM
+     */
+    private static final String TRACE = "trace";
+
+    /** The name of the frame trace file in the files directory */
+    private static final String TRACE_FILE = "trace.bin";
+
+    /** The number of records in the ring of the frame trace, about a minute of frames */
+    private static final int TRACE_CAPACITY = 4096;
+
+    /** The default number of labels in every step of the stress benchmark */
+    private static final int DEFAULT_LABELS = 4;
+
+    /** The default number of boxes added after each sustainable step of the stress benchmark */
+    private static final int DEFAULT_STEP = 16;
+
+    /** The default frame time budget, one 60 Hz frame plus vsync jitter (in milliseconds) */
+    private static final int DEFAULT_BUDGET = 20;
+
+    /** The default number of simulation steps per second of the swarm */
+    private static final int DEFAULT_RATE = 120;
+
     /** The engine for the app */
     private volatile Engine engine;
 
+    /** The frame trace of the app, or <tt>null</tt> if the app is not traced */
+    private Trace trace;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
 
+        StateFactory.start(this, isDemo(getIntent()) && getIntent().getBooleanExtra(PREPARE, true));
+
         engine = EngineFactory.createEngine(this);
 
+        if (getIntent().getBooleanExtra(TRACE, false)) {
+
+            trace = createTrace();
+        }
+
         setContentView(engine.getView());
 
         super.onCreate(savedInstanceState);
@@ -46,16 +148,131 @@ public class MainActivity extends Activity {
     @Override
     protected void onResume() {
 
-        engine.start(StateFactory.createInitial());
+        if (BuildConfig.DEBUG) {
+
+            Allocations.start();
+        }
+
+        Updatable state = createInitial(getIntent(), engine.getView());
+
+        if (trace != null) {
+
+            trace.resume();
+
+            state = TraceFactory.createTraced(state, trace);
+        }
+
+        engine.start(state);
 
         super.onResume();
     }
 
+    /**
+     * Stop the engine, release the cached resources and shared programs, since its GL context may be lost, and write
+     * the {@link Metrics}, {@link Resources} and {@link Ledger} reports to the log under their own tags
+     */
     @Override
     protected void onPause() {
 
         engine.stop();
 
+        StateFactory.stop();
+
+        Log.i(Metrics.TAG, Metrics.toReport());
+        Log.i(Resources.TAG, Resources.toReport());
+        Log.i(Ledger.TAG, Ledger.toReport());
+
+        if (BuildConfig.DEBUG) {
+
+            Allocations.stop();
+        }
+
         super.onPause();
     }
+
+    @Override
+    public void onTrimMemory(int level) {
+
+        Resources.trim(level);
+
+        super.onTrimMemory(level);
+    }
+
+    /**
+     * Check whether the specified intent starts the demo, with its splash and moving states, rather than the stress
+     * benchmark or the swarm
+     *
+     * @param intent The intent
+     *
+     * @return Whether the intent starts the demo
+     */
+    private static boolean isDemo(Intent intent) {
+
+        return intent.getIntExtra(BOXES, 0) <= 0 && intent.getIntExtra(SWARM, 0) <= 0;
+    }
+
+    /**
+     * Create the initial state selected by the extras of the specified intent
+     *
+     * @param intent The intent
+     * @param view The view of the engine
+     *
+     * @return The state
+     */
+    private static Updatable createInitial(Intent intent, View view) {
+
+        int boxes = intent.getIntExtra(BOXES, 0);
+        int swarm = intent.getIntExtra(SWARM, 0);
+
+        if (boxes > 0) {
+
+            int labels = intent.getIntExtra(LABELS, DEFAULT_LABELS);
+            int step = intent.getIntExtra(STEP, DEFAULT_STEP);
+            int budget = intent.getIntExtra(BUDGET, DEFAULT_BUDGET);
+            boolean batched = intent.getBooleanExtra(BATCHED, true);
+            Benchmark benchmark = BenchmarkFactory.createStress(boxes, labels, step, budget, batched);
+
+            return StateFactory.createInitial(benchmark);
+        }
+
+        if (swarm > 0) {
+
+            int rate = Math.max(1, intent.getIntExtra(RATE, DEFAULT_RATE));
+            Resolution resolution = null;
+
+            if (intent.getBooleanExtra(SCALED, false) && view instanceof SurfaceView) {
+
+                int budget = intent.getIntExtra(BUDGET, DEFAULT_BUDGET);
+
+                resolution = ResolutionFactory.createDynamic((SurfaceView) view, budget);
+            }
+
+            boolean colliding = intent.getBooleanExtra(COLLIDE, false);
+
+            return StateFactory.createInitial(swarm, rate, colliding, resolution);
+        }
+
+        return StateFactory.createInitial();
+    }
+
+    /**
+     * Create the frame trace, replacing the trace file of any previous run
+     *
+     * @return The trace, or <tt>null</tt> if the trace file cannot be created
+     */
+    private Trace createTrace() {
+
+        File file = new File(getFilesDir(), TRACE_FILE);
+
+        try {
+
+            return TraceFactory.createTrace(file, TRACE_CAPACITY);
+
+        } catch (IOException e) {
+
+            Log.w(Metrics.TAG, "Unable to trace to " + file + ": " + e);
+
+            return null;
+        }
+    }
 }
@@ -0,0 +1,240 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.benchmark;
+
+import android.util.Log;
+
+import net.tclemens.calcium.demo.BuildConfig;
+import net.tclemens.calcium.demo.metric.Allocations;
+import net.tclemens.calcium.demo.metric.Histogram;
+import net.tclemens.calcium.demo.metric.MetricFactory;
+
+import java.util.Locale;
+
+/**
+ * This class represents a stress benchmark that ramps the number of boxes on screen until the frame time exceeds
+ * its budget. Each step renders a fixed number of boxes for a fixed duration, and the report is written to the log
+ * under the {@link #TAG} tag so that it can be collected with <tt>adb logcat</tt>. Allocations are only counted in
+ * debug builds, and are reported as -1 per frame otherwise.
+ *
+ * @author Tim Clemens
+ */
+public final class Benchmark {
+
+    /** The log tag of the benchmark report */
+    public static final String TAG = "Benchmark";
+
+    /** The number of frame times retained for each step */
+    private static final int FRAMES = 1024;
+
+    /** The number of nanoseconds in a millisecond */
+    private static final double NANOSECONDS = 1000000d;
+
+    /** The allocations per frame reported when allocations are not counted */
+    private static final long UNCOUNTED = -1L;
+
+    /** The number of labels displayed in every step */
+    private final int labels;
+
+    /** The number of boxes added after each sustainable step */
+    private final int increment;
+
+    /** Whether boxes of the same color are drawn together rather than with one draw call each */
+    private final boolean batched;
+
+    /** The duration of each step (in milliseconds) */
+    private final long duration;
+
+    /** The median frame time a step may not exceed to be sustainable (in nanoseconds) */
+    private final long budget;
+
+    /** The frame times of the current step (in nanoseconds) */
+    private final Histogram frames = MetricFactory.createHistogram(FRAMES);
+
+    /** The number of boxes displayed in the current step */
+    private int boxes;
+
+    /** The time of the previous frame of the current step (in nanoseconds), or zero before the first frame */
+    private long previous;
+
+    /** The global allocation count at the start of the current step */
+    private int allocations;
+
+    /** The largest number of boxes rendered within the budget */
+    private int sustainable;
+
+    /** The 99th percentile frame time of the largest sustainable step (in nanoseconds) */
+    private long latency;
+
+    /** The allocations per frame of the largest sustainable step */
+    private long allocated;
+
+    /** Whether allocations are being counted */
+    private boolean counting;
+
+    /** Whether the benchmark has found the first step exceeding the budget */
+    private boolean finished;
+
+    /**
+     * @param boxes The number of boxes displayed in the first step
+     * @param labels The number of labels displayed in every step
+     * @param increment The number of boxes added after each sustainable step
+     * @param batched Whether boxes of the same color are drawn together rather than with one draw call each
+     * @param duration The duration of each step (in milliseconds)
+     * @param budget The median frame time a step may not exceed to be sustainable (in nanoseconds)
+     */
+    Benchmark(int boxes, int labels, int increment, boolean batched, long duration, long budget) {
+
+        this.boxes = boxes;
+        this.labels = labels;
+        this.increment = increment;
+        this.batched = batched;
+        this.duration = duration;
+        this.budget = budget;
+    }
+
+    /**
+     * Get the number of boxes displayed in the current step
+     *
+     * @return The number of boxes
+     */
+    public synchronized int getBoxes() {
+
+        return boxes;
+    }
+
+    /**
+     * Get the number of labels displayed in every step
+     *
+     * @return The number of labels
+     */
+    public int getLabels() {
+
+        return labels;
+    }
+
+    /**
+     * Check whether boxes of the same color are drawn together rather than with one draw call each
+     *
+     * @return Whether the boxes are batched
+     */
+    public boolean isBatched() {
+
+        return batched;
+    }
+
+    /**
+     * Get the duration of each step
+     *
+     * @return The duration (in milliseconds)
+     */
+    public long getDuration() {
+
+        return duration;
+    }
+
+    /**
+     * Check whether the benchmark has found the first step exceeding the budget
+     *
+     * @return Whether the benchmark is finished
+     */
+    public synchronized boolean isFinished() {
+
+        return finished;
+    }
+
+    /**
+     * Start measuring a step. The first frame of a step only establishes a reference time, so the cost of building
+     * the state for the step is not counted as frame time.
+     */
+    public synchronized void begin() {
+
+        if (BuildConfig.DEBUG && !counting) {
+
+            Allocations.start();
+
+            counting = true;
+        }
+
+        frames.clear();
+        previous = 0L;
+        allocations = Allocations.getGlobalCount();
+    }
+
+    /**
+     * Record a frame of the current step
+     */
+    public synchronized void frame() {
+
+        long time = System.nanoTime();
+
+        if (previous != 0L) {
+
+            frames.record(time - previous);
+        }
+
+        previous = time;
+    }
+
+    /**
+     * Finish measuring the current step, and either ramp up the number of boxes or finish the benchmark
+     */
+    public synchronized void end() {
+
+        long count = Math.max(1L, frames.getCount());
+        long median = frames.getPercentile(50d);
+        long tail = frames.getPercentile(99d);
+        long allocation = counting ? (Allocations.getGlobalCount() - allocations) / count : UNCOUNTED;
+
+        Log.i(TAG, String.format(Locale.US,
+                "boxes=%d labels=%d batched=%b frames=%d p50=%.2fms p99=%.2fms allocations/frame=%d", boxes, labels,
+                batched, frames.getCount(), median / NANOSECONDS, tail / NANOSECONDS, allocation));
+
+        if (median <= budget) {
+
+            sustainable = boxes;
+            latency = tail;
+            allocated = allocation;
+            boxes += increment;
+
+        } else {
+
+            finished = true;
+
+            if (counting) {
+
+                Allocations.stop();
+
+                counting = false;
+            }
+
+            Log.i(TAG, toReport());
+        }
+    }
+
+    /**
+     * Create a report of the largest sustainable step
+     *
+     * @return The report
+     */
+    public synchronized String toReport() {
+
+        return String.format(Locale.US,
+                "max sustainable boxes=%d labels=%d p99=%.2fms allocations/frame=%d budget=%.2fms", sustainable, labels,
+                latency / NANOSECONDS, allocated, budget / NANOSECONDS);
+    }
+}
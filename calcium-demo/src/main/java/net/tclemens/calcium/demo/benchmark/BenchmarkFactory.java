@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.benchmark;
+
+/**
+ * This class is responsible for creating and initializing benchmarks
+ *
+ * @author Tim Clemens
+ */
+public final class BenchmarkFactory {
+
+    /** The duration of each step of a stress benchmark (in milliseconds) */
+    private static final long DURATION = 4000L;
+
+    /** The number of nanoseconds in a millisecond */
+    private static final long NANOSECONDS = 1000000L;
+
+    private BenchmarkFactory() {
+    }
+
+    /**
+     * Create a stress benchmark
+     *
+     * @param boxes The number of boxes displayed in the first step
+     * @param labels The number of labels displayed in every step
+     * @param increment The number of boxes added after each sustainable step
+     * @param budget The median frame time a step may not exceed to be sustainable (in milliseconds)
+     * @param batched Whether boxes of the same color are drawn together rather than with one draw call each
+     *
+     * @return The benchmark
+     *
+     * @throws IllegalArgumentException If the boxes, labels, increment or budget are out of range
+     */
+    public static Benchmark createStress(int boxes, int labels, int increment, long budget, boolean batched) {
+
+        if (boxes < 1) {
+
+            throw new IllegalArgumentException("Boxes out of range: " + boxes);
+        }
+
+        if (labels < 0) {
+
+            throw new IllegalArgumentException("Labels out of range: " + labels);
+        }
+
+        if (increment < 1) {
+
+            throw new IllegalArgumentException("Increment out of range: " + increment);
+        }
+
+        if (budget < 1L) {
+
+            throw new IllegalArgumentException("Budget out of range: " + budget);
+        }
+
+        return new Benchmark(boxes, labels, increment, batched, DURATION, budget * NANOSECONDS);
+    }
+}
@@ -16,71 +16,39 @@
 
 package net.tclemens.calcium.demo.box;
 
-import net.tclemens.calcium.engine.graphics.animation.Animation;
 import net.tclemens.calcium.engine.graphics.batch.Batch;
 import net.tclemens.calcium.engine.graphics.batch.BatchFactory;
 import net.tclemens.calcium.engine.graphics.material.Material;
 import net.tclemens.calcium.engine.graphics.model.Model;
-import net.tclemens.calcium.engine.graphics.model.ModelFactory;
-import net.tclemens.calcium.engine.graphics.sprite.Sprite;
 
-import java.util.ArrayList;
 import java.util.Collection;
 
 /**
- * This class represents a moving box
+ * This class represents one or more moving boxes of the same color, drawn as one batch
  *
  * @author Tim Clemens
  */
 public final class Box {
 
-    /** The sprite of the box */
-    private final Sprite sprite;
+    /** The renderable batch of the boxes, shared by every frame */
+    private final Batch batch;
 
-    /** The animation of the box */
-    private final Animation animation;
-
-    /** The material of the box */
-    private final Material material;
-
-    /**=
-     * @param sprite The sprite of the box
-     * @param animation The animation of the box
-     * @param material The material of the box
+    /**
+     * @param models The model of each box
+     * @param material The material shared by the boxes
      */
-    Box(Sprite sprite, Animation animation, Material material) {
+    Box(Collection<Model> models, Material material) {
 
-        this.sprite = sprite;
-        this.animation = animation;
-        this.material = material;
+        this.batch = BatchFactory.createDynamic(material, models);
     }
 
     /**
-     * Convert the box into a renderable batch
+     * Convert the boxes into a renderable batch
      *
      * @return The renderable batch
      */
     public final Batch toBatch() {
 
-        Collection<Model> models = createModels(sprite, animation);
-
-        return BatchFactory.createDynamic(material, models);
-    }
-
-    /**
-     * Create a collection of models from the specified sprite an animation
-     *
-     * @param sprite The sprite of the box
-     * @param animation The animation of the box
-     *
-     * @return The collection of models
-     */
-    private static Collection<Model> createModels(Sprite sprite, Animation animation) {
-
-        Collection<Model> models = new ArrayList<>(1);
-
-        models.add(ModelFactory.createDynamic(sprite.toMesh(), animation));
-
-        return models;
+        return batch;
     }
 }
@@ -16,6 +16,9 @@
 
 package net.tclemens.calcium.demo.box;
 
+import net.tclemens.calcium.demo.resource.Cache;
+import net.tclemens.calcium.demo.resource.Ledger;
+import net.tclemens.calcium.demo.resource.Resources;
 import net.tclemens.calcium.engine.graphics.animation.Animation;
 import net.tclemens.calcium.engine.graphics.color.Color;
 import net.tclemens.calcium.engine.graphics.material.Material;
@@ -26,12 +29,16 @@ import net.tclemens.calcium.engine.graphics.material.property.Property;
 import net.tclemens.calcium.engine.graphics.material.property.PropertyFactory;
 import net.tclemens.calcium.engine.graphics.material.shader.Shader;
 import net.tclemens.calcium.engine.graphics.material.shader.ShaderFactory;
+import net.tclemens.calcium.engine.graphics.mesh.Mesh;
+import net.tclemens.calcium.engine.graphics.model.Model;
+import net.tclemens.calcium.engine.graphics.model.ModelFactory;
 import net.tclemens.calcium.engine.graphics.sprite.Sprite;
 import net.tclemens.calcium.engine.graphics.sprite.SpriteFactory;
 import net.tclemens.calcium.math.vector.Vector3D;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 /**
  * This class is responsible for creating and initializing boxes
@@ -46,37 +53,203 @@ public final class BoxFactory {
     /** The height of each box */
     private static final float HEIGHT = 1f;
 
+    /**
+     * The greatest number of models in a batch of boxes. Each model has its own matrix in the uniform array of the
+     * program, and 16 matrices fit within the 128 uniform vectors every device supports.
+     */
+    public static final int MODELS = 16;
+
+    /** The estimated size of the material of each box color (in bytes), holding only the color uniform */
+    private static final long MATERIAL_SIZE = 256L;
+
+    /** The greatest estimated size of the cached box materials (in bytes), well above the colors of a palette */
+    private static final long BUDGET = 64L * MATERIAL_SIZE;
+
+    /** The estimated size of the mesh of each box (in bytes), four vertices and six indices, rounded up */
+    private static final long MESH_SIZE = 128L;
+
+    /** The estimated size of the program shared by every box (in bytes), as compiled and linked by the driver */
+    private static final long PROGRAM_SIZE = 4L * 1024L;
+
+    /** The program shared by the material of every box, or <tt>null</tt> before the first material is created */
+    private static Program program;
+
+    /** The material of each recently used box color */
+    private static final Cache<Color, Material> MATERIALS = Resources.getCache("box.materials", BUDGET);
+
     private BoxFactory() {
     }
 
     /**
-     * Create a label at the specified position with the specified color and symbols
+     * Create a box at the specified position with the specified animation and color
      *
      * @param position The position of the box
      * @param animation The animation applied to the box
      * @param color The color of the box
+     * @param owner The class of the state the resources are created for, charged with them in the {@link Ledger}
      *
      * @return The box
      */
-    public static Box createBox(Vector3D position, Animation animation, Color color) {
+    public static Box createBox(Vector3D position, Animation animation, Color color, Class<?> owner) {
+
+        Collection<Model> models = new ArrayList<>(1);
+
+        models.add(createModel(position, animation, owner));
+
+        return new Box(models, getMaterial(color, owner));
+    }
+
+    /**
+     * Create boxes of the same color at the specified positions with the specified animations, drawn together in one
+     * batch. There are at most {@link #MODELS} boxes, one for each position and the animation at the same index.
+     *
+     * @param positions The position of each box
+     * @param animations The animation applied to each box
+     * @param color The color of the boxes
+     * @param owner The class of the state the resources are created for, charged with them in the {@link Ledger}
+     *
+     * @return The boxes
+     */
+    public static Box createBoxes(List<Vector3D> positions, List<Animation> animations, Color color,
+                                  Class<?> owner) {
+
+        Collection<Model> models = new ArrayList<>(positions.size());
+
+        for (int index = 0; index < positions.size(); index++) {
+
+            models.add(createModel(positions.get(index), animations.get(index), owner));
+        }
+
+        return new Box(models, getMaterial(color, owner));
+    }
+
+    /**
+     * Create the mesh of a square box of the specified size at the specified position
+     *
+     * @param position The position of the box
+     * @param size The width and height of the box
+     * @param owner The class of the state the resources are created for, charged with them in the {@link Ledger}
+     *
+     * @return The mesh
+     */
+    public static Mesh createMesh(Vector3D position, float size, Class<?> owner) {
+
+        Sprite sprite = SpriteFactory.createSprite(position, size, size);
+        Mesh mesh = sprite.toMesh();
+
+        Ledger.track("mesh", owner, mesh, MESH_SIZE);
+
+        return mesh;
+    }
+
+    /**
+     * Get the material of the specified color, shared by every box of that color while the color is cached so that
+     * boxes of the same color can be drawn together. A material is charged to the owner it is first created for.
+     *
+     * @param color The color of the material
+     * @param owner The class of the state the resources are created for, charged with them in the {@link Ledger}
+     *
+     * @return The material
+     */
+    public static Material getMaterial(Color color, Class<?> owner) {
+
+        Material material = MATERIALS.get(color);
+
+        if (material == null) {
+
+            material = createMaterial(color, owner);
+
+            MATERIALS.put(color, material, MATERIAL_SIZE);
+        }
+
+        return material;
+    }
+
+    /**
+     * Release the program and the cached materials, which belong to the GL context of the engine, so that boxes
+     * created once the engine starts again get new ones. Boxes created before keep what they hold.
+     */
+    public static void release() {
+
+        synchronized (BoxFactory.class) {
+
+            program = null;
+        }
+
+        MATERIALS.clear();
+    }
+
+    /**
+     * Create a model of a box at the specified position with the specified animation
+     *
+     * @param position The position of the box
+     * @param animation The animation applied to the box
+     * @param owner The class of the state the resources are created for, charged with them in the {@link Ledger}
+     *
+     * @return The model
+     */
+    private static Model createModel(Vector3D position, Animation animation, Class<?> owner) {
 
         Sprite sprite = SpriteFactory.createSprite(position, WIDTH, HEIGHT);
-        Material material = createMaterial(color);
+        Mesh mesh = sprite.toMesh();
+
+        Ledger.track("mesh", owner, mesh, MESH_SIZE);
 
-        return new Box(sprite, animation, material);
+        return ModelFactory.createDynamic(mesh, animation);
     }
 
     /**
      * Create a material from the specified color
      *
      * @param color The color of the material
+     * @param owner The class of the state the resources are created for, charged with them in the {@link Ledger}
      *
      * @return The material
      */
-    private static Material createMaterial(Color color) {
+    private static Material createMaterial(Color color, Class<?> owner) {
+
+        Collection<Property> properties = new ArrayList<>(4);
+
+        properties.add(PropertyFactory.createModelViewProjection("u_ModelViewProjection"));
+        properties.add(PropertyFactory.createColor("u_Color", color));
+        properties.add(PropertyFactory.createModel("a_Model"));
+        properties.add(PropertyFactory.createPosition("a_Position"));
+
+        Material material = MaterialFactory.createMaterial(getProgram(owner), properties);
+
+        Ledger.track("material", owner, material, MATERIAL_SIZE);
+
+        return material;
+    }
+
+    /**
+     * Get the program shared by the material of every box, creating it on first use
+     *
+     * @param owner The class of the state the resources are created for, charged with them in the {@link Ledger}
+     *
+     * @return The program
+     */
+    private static synchronized Program getProgram(Class<?> owner) {
+
+        if (program == null) {
+
+            program = createProgram(owner);
+        }
+
+        return program;
+    }
+
+    /**
+     * Create the program used to draw every box
+     *
+     * @param owner The class of the state the resources are created for, charged with them in the {@link Ledger}
+     *
+     * @return The program
+     */
+    private static Program createProgram(Class<?> owner) {
 
         Shader vertex = ShaderFactory.createVertex(
-                "uniform mat4 u_ModelViewProjection[1];" +
+                "uniform mat4 u_ModelViewProjection[" + MODELS + "];" +
                 "attribute float a_Model;" +
                 "attribute vec4 a_Position;" +
                 "void main() {" +
@@ -91,14 +264,10 @@ public final class BoxFactory {
                 "  gl_FragColor = u_Color;" +
                 "}");
 
-        Program program = ProgramFactory.createProgram(vertex, fragment);
-        Collection<Property> properties = new ArrayList<>(4);
+        Program created = ProgramFactory.createProgram(vertex, fragment);
 
-        properties.add(PropertyFactory.createModelViewProjection("u_ModelViewProjection"));
-        properties.add(PropertyFactory.createColor("u_Color", color));
-        properties.add(PropertyFactory.createModel("a_Model"));
-        properties.add(PropertyFactory.createPosition("a_Position"));
+        Ledger.track("program", owner, created, PROGRAM_SIZE);
 
-        return MaterialFactory.createMaterial(program, properties);
+        return created;
     }
 }
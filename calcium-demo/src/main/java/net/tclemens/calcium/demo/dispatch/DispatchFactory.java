@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.dispatch;
+
+import net.tclemens.calcium.engine.updates.base.Updatable;
+
+/**
+ * This class is responsible for creating and initializing dispatchers
+ *
+ * @author Tim Clemens
+ */
+public final class DispatchFactory {
+
+    private DispatchFactory() {
+    }
+
+    /**
+     * Create a dispatcher without any handlers
+     *
+     * @param <S> The type of the state
+     *
+     * @return The dispatcher
+     */
+    public static <S extends Updatable> Dispatcher<S> createDispatcher() {
+
+        return new Dispatcher<>();
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.dispatch;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+
+import net.tclemens.calcium.engine.updates.base.Updatable;
+import net.tclemens.calcium.engine.updates.event.Event;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class represents a table routing each event received by a type of state to the handler registered for its
+ * type. The handler of each concrete event class is resolved once and remembered, so dispatching an event is a scan
+ * of a few class references instead of a chain of type checks.
+ *
+ * Handlers are registered while the table is created, and events are dispatched by the engine thread only.
+ *
+ * @param <S> The type of the state
+ *
+ * @author Tim Clemens
+ */
+public final class Dispatcher<S extends Updatable> {
+
+    /** The greatest number of concrete event classes whose handler is remembered */
+    private static final int CLASSES = 8;
+
+    /** The registered event types */
+    private final List<Class<? extends Event>> types = new ArrayList<>();
+
+    /** The handler of each registered event type */
+    private final List<Handler<S, ?>> handlers = new ArrayList<>();
+
+    /** The concrete event classes whose handler is remembered */
+    private final Class<?>[] classes = new Class<?>[CLASSES];
+
+    /** The handler of each remembered event class, or <tt>null</tt> if the class is not handled */
+    private final Handler<?, ?>[] resolved = new Handler<?, ?>[CLASSES];
+
+    /** The number of remembered event classes */
+    private int count;
+
+    Dispatcher() {
+    }
+
+    /**
+     * Register the handler of the specified event type. Events of more than one registered type are handled by the
+     * handler registered first.
+     *
+     * @param type The event type
+     * @param handler The handler of the events
+     * @param <T> The event type
+     */
+    public <T extends Event> void register(Class<T> type, Handler<S, ? super T> handler) {
+
+        types.add(type);
+        handlers.add(handler);
+    }
+
+    /**
+     * Dispatch the specified event to the handler registered for its type
+     *
+     * @param state The state receiving the event
+     * @param context The application context
+     * @param event The event
+     *
+     * @return The state after the event, or the state receiving it if its type is not handled
+     */
+    @NonNull
+    @SuppressWarnings("unchecked")
+    public Updatable dispatch(@NonNull S state, @NonNull Context context, @NonNull Event event) {
+
+        Handler<S, Event> handler = (Handler<S, Event>) find(event.getClass());
+
+        if (handler == null) {
+
+            return state;
+        }
+
+        return handler.handle(state, context, event);
+    }
+
+    /**
+     * Find the handler of the specified concrete event class, resolving and remembering it on first use
+     *
+     * @param type The concrete event class
+     *
+     * @return The handler, or <tt>null</tt> if the class is not handled
+     */
+    private Handler<?, ?> find(Class<?> type) {
+
+        for (int index = 0; index < count; index++) {
+
+            if (classes[index] == type) {
+
+                return resolved[index];
+            }
+        }
+
+        Handler<?, ?> handler = resolve(type);
+
+        if (count < CLASSES) {
+
+            classes[count] = type;
+            resolved[count] = handler;
+            count++;
+        }
+
+        return handler;
+    }
+
+    /**
+     * Resolve the handler of the specified concrete event class from the registered event types
+     *
+     * @param type The concrete event class
+     *
+     * @return The handler, or <tt>null</tt> if the class is not handled
+     */
+    private Handler<?, ?> resolve(Class<?> type) {
+
+        for (int index = 0; index < types.size(); index++) {
+
+            if (types.get(index).isAssignableFrom(type)) {
+
+                return handlers.get(index);
+            }
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.dispatch;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+
+import net.tclemens.calcium.engine.updates.base.Updatable;
+import net.tclemens.calcium.engine.updates.event.Event;
+
+/**
+ * This interface represents the handling of one type of event by a state
+ *
+ * @param <S> The type of the state
+ * @param <T> The type of the event
+ *
+ * @author Tim Clemens
+ */
+public interface Handler<S extends Updatable, T extends Event> {
+
+    /**
+     * Handle the specified event for the specified state
+     *
+     * @param state The state receiving the event
+     * @param context The application context
+     * @param event The event
+     *
+     * @return The state after the event
+     */
+    @NonNull
+    Updatable handle(@NonNull S state, @NonNull Context context, @NonNull T event);
+}
@@ -19,11 +19,10 @@ package net.tclemens.calcium.demo.label;
 import net.tclemens.calcium.engine.graphics.batch.Batch;
 import net.tclemens.calcium.engine.graphics.batch.BatchFactory;
 import net.tclemens.calcium.engine.graphics.material.Material;
+import net.tclemens.calcium.engine.graphics.mesh.Mesh;
 import net.tclemens.calcium.engine.graphics.model.Model;
 import net.tclemens.calcium.engine.graphics.model.ModelFactory;
-import net.tclemens.calcium.engine.graphics.text.Text;
 import net.tclemens.calcium.math.matrix.Matrix3D;
-import net.tclemens.calcium.math.matrix.MatrixFactory;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -35,20 +34,19 @@ import java.util.Collection;
  */
 public final class Label {
 
-    /** The text of the label */
-    private final Text text;
-
-    /** The material of the label */
-    private final Material material;
+    /** The renderable batch of the label, shared by every frame */
+    private final Batch batch;
 
     /**
-     * @param text The text of the label
+     * @param mesh The mesh of the glyphs of the label, laid out at the origin
      * @param material The material of the label
+     * @param transformation The translation placing the glyphs at the position of the label
      */
-    Label(Text text, Material material) {
+    Label(Mesh mesh, Material material, Matrix3D transformation) {
+
+        Collection<Model> models = createModels(mesh, transformation);
 
-        this.text = text;
-        this.material = material;
+        this.batch = BatchFactory.createDynamic(material, models);
     }
 
     /**
@@ -58,39 +56,23 @@ public final class Label {
      */
     public final Batch toBatch() {
 
-        Collection<Model> models = createModels(text);
-
-        return BatchFactory.createDynamic(material, models);
+        return batch;
     }
 
     /**
-     * Create a collection of models from the specified text
+     * Create a collection of models from the specified mesh and transformation
      *
-     * @param text The text of the label
+     * @param mesh The mesh of the glyphs of the label
+     * @param transformation The translation placing the glyphs at the position of the label
      *
      * @return The collection of models
      */
-    private static Collection<Model> createModels(Text text) {
+    private static Collection<Model> createModels(Mesh mesh, Matrix3D transformation) {
 
-        Matrix3D matrix = createTransformation(text);
         Collection<Model> models = new ArrayList<>(1);
 
-        models.add(ModelFactory.createStatic(text.toMesh(), matrix));
+        models.add(ModelFactory.createStatic(mesh, transformation));
 
         return models;
     }
-
-    /**
-     * Create a transformation to center the specified text
-     *
-     * @param text The text of the label
-     *
-     * @return A transformation
-     */
-    private static Matrix3D createTransformation(Text text) {
-
-        float offset = -text.getWidth() / 2f;
-
-        return MatrixFactory.createTranslate3D(offset, 0f, 0f);
-    }
 }
@@ -19,6 +19,9 @@ package net.tclemens.calcium.demo.label;
 import android.content.Context;
 import android.graphics.Typeface;
 
+import net.tclemens.calcium.demo.resource.Cache;
+import net.tclemens.calcium.demo.resource.Ledger;
+import net.tclemens.calcium.demo.resource.Resources;
 import net.tclemens.calcium.engine.graphics.color.Color;
 import net.tclemens.calcium.engine.graphics.material.Material;
 import net.tclemens.calcium.engine.graphics.material.MaterialFactory;
@@ -39,6 +42,7 @@ import net.tclemens.calcium.engine.graphics.texture.image.ImageFactory;
 import net.tclemens.calcium.engine.graphics.texture.parameter.Filter;
 import net.tclemens.calcium.engine.graphics.texture.parameter.Wrapping;
 import net.tclemens.calcium.math.vector.Vector3D;
+import net.tclemens.calcium.math.vector.VectorFactory;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -54,43 +58,156 @@ public final class LabelFactory {
     /** The collection of symbols available for each label */
     private static final Collection<Character> SYMBOLS = new HashSet<>();
 
+    /** The position every layout is laid out at, moved to the position of each label by its translation */
+    private static final Vector3D ORIGIN = VectorFactory.createPosition3D(0f, 0f, 0f);
+
     /** The typeface for each label */
     private static final String TYPEFACE = "OpenSans-Regular.ttf";
 
     /** The initial height of each label */
     private static final float HEIGHT = 0.5f;
 
+    /**
+     * The estimated size of the texture of each label (in bytes). The font atlas is one row of about a dozen glyphs of
+     * 30 pixels, rounded up to 512 by 32 pixels of four bytes each.
+     */
+    private static final long TEXTURE_SIZE = 512L * 32L * 4L;
+
+    /** The greatest estimated size of the cached label textures (in bytes) */
+    private static final long BUDGET = 8L * TEXTURE_SIZE;
+
+    /**
+     * The estimated size of the layout of each symbol (in bytes). Each glyph is a quad of four vertices with a
+     * position, texture coordinates and model index of six floats, plus six indices, rounded up.
+     */
+    private static final long GLYPH_SIZE = 128L;
+
+    /** The greatest estimated size of the cached label layouts (in bytes) */
+    private static final long LAYOUT_BUDGET = 64L * 1024L;
+
+    /** The estimated size of the font (in bytes), the decoded typeface and the metrics and bitmaps of its glyphs */
+    private static final long FONT_SIZE = 64L * 1024L;
+
+    /** The estimated size of the program shared by every label (in bytes), as compiled and linked by the driver */
+    private static final long PROGRAM_SIZE = 4L * 1024L;
+
+    /** The material of each recently used label color, holding the font texture in that color */
+    private static final Cache<Color, Material> MATERIALS = Resources.getCache("label.materials", BUDGET);
+
+    /** The layout of each recently used string of symbols, laid out with the shared font and height */
+    private static final Cache<String, Layout> LAYOUTS = Resources.getCache("label.layouts", LAYOUT_BUDGET);
+
+    /** The font shared by every label, or <tt>null</tt> before the first label is created */
+    private static Font font;
+
+    /** The program shared by the material of every label, or <tt>null</tt> before the first material is created */
+    private static Program program;
+
     private LabelFactory() {
     }
 
     /**
-     * Create a label at the specified position with the specified color and symbols
+     * Create a label centered at the specified position with the specified color and symbols. Labels of the same
+     * color share a material and its font texture while the color is cached, and labels with the same symbols share
+     * their layout wherever they are placed while it is cached. Shared resources are charged to the owner they are
+     * first created for.
      *
-     * @param position The position of the label
+     * @param x The <tt>x</tt> position of the center of the label
+     * @param y The <tt>y</tt> position of the label
      * @param context The application context
      * @param color The color of the font for the label
      * @param symbols The symbols for the label
+     * @param owner The class of the state the resources are created for, charged with them in the {@link Ledger}
      *
      * @return The label
      */
-    public static Label createLabel(Vector3D position, Context context, Color color, String symbols) {
+    public static Label createLabel(float x, float y, Context context, Color color, String symbols, Class<?> owner) {
+
+        Font font = getFont(context, owner);
+        Layout layout = getLayout(font, symbols, owner);
+        Material material = MATERIALS.get(color);
+
+        if (material == null) {
 
-        Font font = createFont(context);
-        Text text = TextFactory.createText(position, font, symbols, HEIGHT);
-        Texture texture = createTexture(font, color);
-        Material material = createMaterial(texture);
+            material = createMaterial(createTexture(font, color, owner), owner);
 
-        return new Label(text, material);
+            MATERIALS.put(color, material, TEXTURE_SIZE);
+        }
+
+        return new Label(layout.getMesh(), material, layout.createTransformation(x, y));
+    }
+
+    /**
+     * Release the program, the cached materials and their font textures, and the cached layouts, which belong to the
+     * GL context of the engine, so that labels created once the engine starts again get new ones. The font is kept.
+     * Labels created before keep what they hold.
+     */
+    public static void release() {
+
+        synchronized (LabelFactory.class) {
+
+            program = null;
+        }
+
+        MATERIALS.clear();
+        LAYOUTS.clear();
+    }
+
+    /**
+     * Get the layout of the specified symbols, laying them out at the origin with the specified font if the layout is
+     * not cached
+     *
+     * @param font The font shared by every label
+     * @param symbols The symbols of the label
+     * @param owner The class of the state the resources are created for, charged with them in the {@link Ledger}
+     *
+     * @return The layout
+     */
+    private static Layout getLayout(Font font, String symbols, Class<?> owner) {
+
+        Layout layout = LAYOUTS.get(symbols);
+
+        if (layout == null) {
+
+            Text text = TextFactory.createText(ORIGIN, font, symbols, HEIGHT);
+            long size = symbols.length() * GLYPH_SIZE;
+
+            layout = new Layout(text);
+
+            LAYOUTS.put(symbols, layout, size);
+            Ledger.track("layout", owner, layout, size);
+        }
+
+        return layout;
+    }
+
+    /**
+     * Get the font shared by every label, creating it from the specified application context on first use
+     *
+     * @param context The application context
+     * @param owner The class of the state the resources are created for, charged with them in the {@link Ledger}
+     *
+     * @return The font
+     */
+    private static synchronized Font getFont(Context context, Class<?> owner) {
+
+        if (font == null) {
+
+            font = createFont(context, owner);
+        }
+
+        return font;
     }
 
     /**
      * Create a font from specified application context
      *
      * @param context The application context
+     * @param owner The class of the state the resources are created for, charged with them in the {@link Ledger}
      *
      * @return The font
      */
-    private static Font createFont(Context context) {
+    private static Font createFont(Context context, Class<?> owner) {
 
         Typeface typeface = Typeface.createFromAsset(context.getAssets(), TYPEFACE);
 
@@ -114,7 +231,11 @@ public final class LabelFactory {
             SYMBOLS.add('t');
         }
 
-        return FontFactory.createFont(typeface, SYMBOLS, 30f, 0f);
+        Font created = FontFactory.createFont(typeface, SYMBOLS, 30f, 0f);
+
+        Ledger.track("font", owner, created, FONT_SIZE);
+
+        return created;
     }
 
     /**
@@ -122,24 +243,67 @@ public final class LabelFactory {
      *
      * @param font The font drawn on the texture
      * @param color The color of the font
+     * @param owner The class of the state the resources are created for, charged with them in the {@link Ledger}
      *
      * @return The font texture
      */
-    private static Texture createTexture(Font font, Color color) {
+    private static Texture createTexture(Font font, Color color, Class<?> owner) {
 
         Image image = ImageFactory.createFont(font, color, 1);
 
-        return TextureFactory.createTexture(image, Filter.LINEAR, Filter.LINEAR, Wrapping.STRETCH, Wrapping.STRETCH);
+        Texture texture = TextureFactory.createTexture(image, Filter.LINEAR, Filter.LINEAR, Wrapping.STRETCH,
+                Wrapping.STRETCH);
+
+        Ledger.track("texture", owner, texture, TEXTURE_SIZE);
+
+        return texture;
     }
 
     /**
      * Create a material from the specified texture
      *
      * @param texture The texture of the material
+     * @param owner The class of the state the resources are created for, charged with them in the {@link Ledger}
      *
      * @return The material
      */
-    private static Material createMaterial(Texture texture) {
+    private static Material createMaterial(Texture texture, Class<?> owner) {
+
+        Collection<Property> properties = new ArrayList<>(4);
+
+        properties.add(PropertyFactory.createModelViewProjection("u_ModelViewProjection"));
+        properties.add(PropertyFactory.createTexture("a_TextureCoordinates", texture));
+        properties.add(PropertyFactory.createModel("a_Model"));
+        properties.add(PropertyFactory.createPosition("a_Position"));
+
+        return MaterialFactory.createMaterial(getProgram(owner), properties);
+    }
+
+    /**
+     * Get the program shared by the material of every label, creating it on first use
+     *
+     * @param owner The class of the state the resources are created for, charged with them in the {@link Ledger}
+     *
+     * @return The program
+     */
+    private static synchronized Program getProgram(Class<?> owner) {
+
+        if (program == null) {
+
+            program = createProgram(owner);
+        }
+
+        return program;
+    }
+
+    /**
+     * Create the program used to draw every label
+     *
+     * @param owner The class of the state the resources are created for, charged with them in the {@link Ledger}
+     *
+     * @return The program
+     */
+    private static Program createProgram(Class<?> owner) {
 
         Shader vertex = ShaderFactory.createVertex(
                 "uniform mat4 u_ModelViewProjection[1];" +
@@ -161,14 +325,10 @@ public final class LabelFactory {
                 "  gl_FragColor = texture2D(u_Sampler, v_TextureCoordinates);" +
                 "}");
 
-        Program program = ProgramFactory.createProgram(vertex, fragment);
-        Collection<Property> properties = new ArrayList<>(4);
+        Program created = ProgramFactory.createProgram(vertex, fragment);
 
-        properties.add(PropertyFactory.createModelViewProjection("u_ModelViewProjection"));
-        properties.add(PropertyFactory.createTexture("a_TextureCoordinates", texture));
-        properties.add(PropertyFactory.createModel("a_Model"));
-        properties.add(PropertyFactory.createPosition("a_Position"));
+        Ledger.track("program", owner, created, PROGRAM_SIZE);
 
-        return MaterialFactory.createMaterial(program, properties);
+        return created;
     }
 }
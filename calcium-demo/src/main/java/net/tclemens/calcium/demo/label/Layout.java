@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.label;
+
+import net.tclemens.calcium.engine.graphics.mesh.Mesh;
+import net.tclemens.calcium.engine.graphics.text.Text;
+import net.tclemens.calcium.math.matrix.Matrix3D;
+import net.tclemens.calcium.math.matrix.MatrixFactory;
+
+/**
+ * This class represents the layout of the symbols of a label, the mesh of its glyphs laid out at the origin and their
+ * width, shared by every label with the same symbols wherever it is placed
+ *
+ * @author Tim Clemens
+ */
+final class Layout {
+
+    /** The mesh of the glyphs */
+    private final Mesh mesh;
+
+    /** The width of the glyphs */
+    private final float width;
+
+    /**
+     * @param text The text laid out at the origin
+     */
+    Layout(Text text) {
+
+        this.mesh = text.toMesh();
+        this.width = text.getWidth();
+    }
+
+    /**
+     * Get the mesh of the glyphs
+     *
+     * @return The mesh
+     */
+    Mesh getMesh() {
+
+        return mesh;
+    }
+
+    /**
+     * Create a translation moving the glyphs from the origin to the specified position, centered horizontally
+     *
+     * @param x The <tt>x</tt> position of the center of the glyphs
+     * @param y The <tt>y</tt> position of the glyphs
+     *
+     * @return The transformation
+     */
+    Matrix3D createTransformation(float x, float y) {
+
+        return MatrixFactory.createTranslate3D(x - width / 2f, y, 0f);
+    }
+}
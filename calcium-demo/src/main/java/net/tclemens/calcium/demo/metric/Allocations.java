@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.metric;
+
+import android.os.Debug;
+
+/**
+ * This class is responsible for counting allocations. Counting has a cost of its own, so it is only active between
+ * balanced calls to {@link #start()} and {@link #stop()}; outside of them every count stays at zero.
+ *
+ * The allocation counters of {@link Debug} are deprecated since API 23 without a replacement counting the objects
+ * allocated by a thread, and still work on every supported version, so their deprecation is suppressed here.
+ *
+ * @author Tim Clemens
+ */
+public final class Allocations {
+
+    /** The number of callers that have started counting */
+    private static int users;
+
+    private Allocations() {
+    }
+
+    /**
+     * Start counting allocations
+     */
+    @SuppressWarnings("deprecation")
+    public static synchronized void start() {
+
+        if (users++ == 0) {
+
+            Debug.startAllocCounting();
+        }
+    }
+
+    /**
+     * Stop counting allocations once every caller that started counting has stopped
+     */
+    @SuppressWarnings("deprecation")
+    public static synchronized void stop() {
+
+        if (users > 0 && --users == 0) {
+
+            Debug.stopAllocCounting();
+        }
+    }
+
+    /**
+     * Check whether allocations are being counted
+     *
+     * @return Whether allocations are being counted
+     */
+    public static synchronized boolean isCounting() {
+
+        return users > 0;
+    }
+
+    /**
+     * Get the number of objects allocated by the calling thread while counting
+     *
+     * @return The number of objects
+     */
+    @SuppressWarnings("deprecation")
+    public static int getThreadCount() {
+
+        return Debug.getThreadAllocCount();
+    }
+
+    /**
+     * Get the number of objects allocated by the process while counting
+     *
+     * @return The number of objects
+     */
+    @SuppressWarnings("deprecation")
+    public static int getGlobalCount() {
+
+        return Debug.getGlobalAllocCount();
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.metric;
+
+/**
+ * This class represents a counter of values added over a series of events, such as the allocations of each state
+ * transition
+ *
+ * @author Tim Clemens
+ */
+public final class Counter {
+
+    /** The number of events */
+    private long count;
+
+    /** The sum of the values of every event */
+    private long total;
+
+    /** The largest value of a single event */
+    private long maximum;
+
+    Counter() {
+    }
+
+    /**
+     * Add the value of an event
+     *
+     * @param value The value
+     */
+    public synchronized void add(long value) {
+
+        count++;
+        total += value;
+        maximum = Math.max(maximum, value);
+    }
+
+    /**
+     * Get the number of events
+     *
+     * @return The number of events
+     */
+    public synchronized long getCount() {
+
+        return count;
+    }
+
+    /**
+     * Get the sum of the values of every event
+     *
+     * @return The sum
+     */
+    public synchronized long getTotal() {
+
+        return total;
+    }
+
+    /**
+     * Get the mean value of an event
+     *
+     * @return The mean, or zero if there were no events
+     */
+    public synchronized long getMean() {
+
+        return count == 0L ? 0L : total / count;
+    }
+
+    /**
+     * Get the largest value of a single event
+     *
+     * @return The largest value
+     */
+    public synchronized long getMaximum() {
+
+        return maximum;
+    }
+}
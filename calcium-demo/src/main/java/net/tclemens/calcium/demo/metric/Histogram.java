@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.metric;
+
+import java.util.Arrays;
+
+/**
+ * This class represents a histogram over a bounded window of the most recent samples
+ *
+ * @author Tim Clemens
+ */
+public final class Histogram {
+
+    /** The most recent samples, stored as a ring */
+    private final long[] samples;
+
+    /** The number of samples recorded since the histogram was last cleared */
+    private long count;
+
+    /**
+     * @param capacity The maximum number of samples retained
+     */
+    Histogram(int capacity) {
+
+        this.samples = new long[capacity];
+    }
+
+    /**
+     * Record the specified sample, replacing the oldest sample once the histogram is full
+     *
+     * @param sample The sample
+     */
+    public synchronized void record(long sample) {
+
+        samples[(int) (count % samples.length)] = sample;
+        count++;
+    }
+
+    /**
+     * Get the number of samples recorded since the histogram was last cleared
+     *
+     * @return The number of samples
+     */
+    public synchronized long getCount() {
+
+        return count;
+    }
+
+    /**
+     * Get the mean of the retained samples
+     *
+     * @return The mean, or zero if no samples are retained
+     */
+    public synchronized long getMean() {
+
+        int size = getSize();
+
+        if (size == 0) {
+
+            return 0L;
+        }
+
+        long total = 0L;
+
+        for (int index = 0; index < size; index++) {
+
+            total += samples[index];
+        }
+
+        return total / size;
+    }
+
+    /**
+     * Get the specified percentile of the retained samples
+     *
+     * @param percentile The percentile (between <tt>0</tt> and <tt>100</tt>)
+     *
+     * @return The percentile, or zero if no samples are retained
+     */
+    public synchronized long getPercentile(double percentile) {
+
+        int size = getSize();
+
+        if (size == 0) {
+
+            return 0L;
+        }
+
+        long[] sorted = Arrays.copyOf(samples, size);
+
+        Arrays.sort(sorted);
+
+        int index = (int) Math.ceil(percentile / 100d * size) - 1;
+
+        return sorted[Math.max(0, Math.min(size - 1, index))];
+    }
+
+    /**
+     * Remove every sample from the histogram
+     */
+    public synchronized void clear() {
+
+        count = 0L;
+    }
+
+    /**
+     * Get the number of retained samples
+     *
+     * @return The number of retained samples
+     */
+    private int getSize() {
+
+        return (int) Math.min(count, samples.length);
+    }
+}
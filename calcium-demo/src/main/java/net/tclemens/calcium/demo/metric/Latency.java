@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.metric;
+
+/**
+ * This class represents the latency from an input event to the second frame requested from the state it produced.
+ * The latency is split into phases, each recorded in its own histogram (in nanoseconds):
+ *
+ * <ul>
+ * <li><tt>queue</tt> - from the event to its delivery to the update</li>
+ * <li><tt>update</tt> - the update, including the construction of the next state</li>
+ * <li><tt>frame</tt> - from the end of the update to the end of the first render of the next state</li>
+ * <li><tt>next</tt> - from the end of that render to the end of the next render of the state</li>
+ * <li><tt>total</tt> - the sum of every phase</li>
+ * </ul>
+ *
+ * A render only builds the description of a frame, and the engine draws it and swaps the buffers out of sight of the
+ * state, so neither phase observes the draw or the swap. The next render is the first point the state can observe
+ * after the engine has finished with the first frame, which makes the total an upper bound on the time to present
+ * that frame rather than a measurement of it. Only one event is measured at a time; a newer event replaces a
+ * measurement that has not finished.
+ *
+ * @author Tim Clemens
+ */
+public final class Latency {
+
+    /** The number of nanoseconds in a millisecond */
+    private static final long NANOSECONDS = 1000000L;
+
+    /** The queue phase histogram */
+    private final Histogram queue;
+
+    /** The update phase histogram */
+    private final Histogram update;
+
+    /** The frame phase histogram */
+    private final Histogram frame;
+
+    /** The next phase histogram */
+    private final Histogram next;
+
+    /** The total latency histogram */
+    private final Histogram total;
+
+    /** The state produced by the measured event, or <tt>null</tt> if no event is measured */
+    private Object state;
+
+    /** The queue phase of the measured event (in nanoseconds) */
+    private long queued;
+
+    /** The time the measured event was delivered (in nanoseconds) */
+    private long received;
+
+    /** The time the update of the measured event finished (in nanoseconds) */
+    private long updated;
+
+    /** The time the first render of the produced state finished (in nanoseconds), or zero before it */
+    private long rendered;
+
+    /**
+     * @param queue The queue phase histogram
+     * @param update The update phase histogram
+     * @param frame The frame phase histogram
+     * @param next The next phase histogram
+     * @param total The total latency histogram
+     */
+    Latency(Histogram queue, Histogram update, Histogram frame, Histogram next, Histogram total) {
+
+        this.queue = queue;
+        this.update = update;
+        this.frame = frame;
+        this.next = next;
+        this.total = total;
+    }
+
+    /**
+     * Start measuring an event as it is delivered to the update
+     *
+     * @param time The time of the event (in milliseconds since the epoch)
+     */
+    public synchronized void receive(long time) {
+
+        state = null;
+        queued = Math.max(0L, System.currentTimeMillis() - time) * NANOSECONDS;
+        received = System.nanoTime();
+    }
+
+    /**
+     * Mark the end of the update of the measured event
+     *
+     * @param state The state produced by the update
+     */
+    public synchronized void update(Object state) {
+
+        this.state = state;
+
+        updated = System.nanoTime();
+        rendered = 0L;
+    }
+
+    /**
+     * Mark the end of a render of the specified state, finishing the measurement on the render after the first
+     * render of the produced state
+     *
+     * @param state The rendered state
+     */
+    public synchronized void render(Object state) {
+
+        if (state != this.state) {
+
+            return;
+        }
+
+        long time = System.nanoTime();
+
+        if (rendered == 0L) {
+
+            rendered = time;
+
+            return;
+        }
+
+        queue.record(queued);
+        update.record(updated - received);
+        frame.record(rendered - updated);
+        next.record(time - rendered);
+        total.record(queued + time - received);
+
+        this.state = null;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.metric;
+
+/**
+ * This class is responsible for creating and initializing metrics
+ *
+ * @author Tim Clemens
+ */
+public final class MetricFactory {
+
+    private MetricFactory() {
+    }
+
+    /**
+     * Create a histogram retaining up to the specified number of samples
+     *
+     * @param capacity The maximum number of samples retained
+     *
+     * @return The histogram
+     */
+    public static Histogram createHistogram(int capacity) {
+
+        return new Histogram(capacity);
+    }
+
+    /**
+     * Create a counter
+     *
+     * @return The counter
+     */
+    public static Counter createCounter() {
+
+        return new Counter();
+    }
+
+    /**
+     * Create a latency measurement registering its phase histograms under the specified name
+     *
+     * @param name The name of the latency
+     *
+     * @return The latency
+     */
+    public static Latency createLatency(String name) {
+
+        Histogram queue = Metrics.getHistogram(name + ".queue");
+        Histogram update = Metrics.getHistogram(name + ".update");
+        Histogram frame = Metrics.getHistogram(name + ".frame");
+        Histogram next = Metrics.getHistogram(name + ".next");
+        Histogram total = Metrics.getHistogram(name + ".total");
+
+        return new Latency(queue, update, frame, next, total);
+    }
+
+    /**
+     * Create a milestone registering its histogram under the specified name
+     *
+     * @param name The name of the milestone
+     *
+     * @return The milestone
+     */
+    public static Milestone createMilestone(String name) {
+
+        return new Milestone(Metrics.getHistogram(name));
+    }
+}
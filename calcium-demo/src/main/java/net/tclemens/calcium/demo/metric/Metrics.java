@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.metric;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * This class represents the registry of named metrics, readable in the app and from tests
+ *
+ * @author Tim Clemens
+ */
+public final class Metrics {
+
+    /** The log tag of the metrics report */
+    public static final String TAG = "Metrics";
+
+    /** The number of samples retained by each registered histogram */
+    private static final int CAPACITY = 1024;
+
+    /** The number of nanoseconds in a millisecond */
+    private static final double NANOSECONDS = 1000000d;
+
+    /** The registered histograms by name */
+    private static final Map<String, Histogram> HISTOGRAMS = new TreeMap<>();
+
+    /** The registered counters by name */
+    private static final Map<String, Counter> COUNTERS = new TreeMap<>();
+
+    private Metrics() {
+    }
+
+    /**
+     * Get the histogram with the specified name, registering it if it does not exist
+     *
+     * @param name The name of the histogram
+     *
+     * @return The histogram
+     */
+    public static synchronized Histogram getHistogram(String name) {
+
+        Histogram histogram = HISTOGRAMS.get(name);
+
+        if (histogram == null) {
+
+            histogram = MetricFactory.createHistogram(CAPACITY);
+
+            HISTOGRAMS.put(name, histogram);
+        }
+
+        return histogram;
+    }
+
+    /**
+     * Get the counter with the specified name, registering it if it does not exist
+     *
+     * @param name The name of the counter
+     *
+     * @return The counter
+     */
+    public static synchronized Counter getCounter(String name) {
+
+        Counter counter = COUNTERS.get(name);
+
+        if (counter == null) {
+
+            counter = MetricFactory.createCounter();
+
+            COUNTERS.put(name, counter);
+        }
+
+        return counter;
+    }
+
+    /**
+     * Create a report of every registered histogram of nanosecond samples and every registered counter, one line
+     * per metric
+     *
+     * @return The report
+     */
+    public static synchronized String toReport() {
+
+        StringBuilder builder = new StringBuilder();
+
+        for (Map.Entry<String, Histogram> entry : HISTOGRAMS.entrySet()) {
+
+            Histogram histogram = entry.getValue();
+
+            builder.append(String.format(Locale.US, "%s count=%d mean=%.2fms p50=%.2fms p99=%.2fms%n",
+                    entry.getKey(), histogram.getCount(), histogram.getMean() / NANOSECONDS,
+                    histogram.getPercentile(50d) / NANOSECONDS, histogram.getPercentile(99d) / NANOSECONDS));
+        }
+
+        for (Map.Entry<String, Counter> entry : COUNTERS.entrySet()) {
+
+            Counter counter = entry.getValue();
+
+            builder.append(String.format(Locale.US, "%s count=%d total=%d mean=%d max=%d%n",
+                    entry.getKey(), counter.getCount(), counter.getTotal(), counter.getMean(), counter.getMaximum()));
+        }
+
+        return builder.toString();
+    }
+}
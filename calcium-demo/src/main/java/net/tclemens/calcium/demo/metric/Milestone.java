@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.metric;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class represents the time from a start to the first time a milestone is reached after it, such as the time
+ * from the creation of the app to its first frame. Reaching the milestone again before the next start records
+ * nothing, so it can be reached from every frame.
+ *
+ * @author Tim Clemens
+ */
+public final class Milestone {
+
+    /** The histogram of the measured times (in nanoseconds) */
+    private final Histogram histogram;
+
+    /** The time of the start (in nanoseconds), or zero if the milestone has been reached since */
+    private final AtomicLong started = new AtomicLong();
+
+    /**
+     * @param histogram The histogram of the measured times
+     */
+    Milestone(Histogram histogram) {
+
+        this.histogram = histogram;
+    }
+
+    /**
+     * Start measuring, replacing a measurement that has not reached the milestone
+     */
+    public void start() {
+
+        started.set(System.nanoTime());
+    }
+
+    /**
+     * Reach the milestone, finishing the measurement if this is the first time since the start
+     */
+    public void reach() {
+
+        long start = started.get();
+
+        if (start != 0L && started.compareAndSet(start, 0L)) {
+
+            histogram.record(System.nanoTime() - start);
+        }
+    }
+}
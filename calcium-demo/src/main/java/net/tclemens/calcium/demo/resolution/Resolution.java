@@ -0,0 +1,208 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.resolution;
+
+import android.util.Log;
+import android.view.SurfaceHolder;
+import android.view.SurfaceView;
+
+import net.tclemens.calcium.demo.metric.Counter;
+import net.tclemens.calcium.demo.metric.Metrics;
+
+/**
+ * This class represents the resolution of the surface of a view, scaled down while the frame time exceeds a budget
+ * and back up once it is comfortably within it. The surface is resized to the scaled resolution and stretched over
+ * the view by the compositor, so the engine renders fewer pixels without any change to its frames.
+ *
+ * Frame times are averaged over a rolling window, and the resolution is held for a number of frames after each
+ * change so that it can take effect before the next decision. The resolution is only scaled up after a run of frames
+ * on time, and the run required doubles each time scaling up is immediately undone, so a device at its limit does not
+ * oscillate between two scales.
+ *
+ * @author Tim Clemens
+ */
+public final class Resolution implements Runnable {
+
+    /** The tag of the resolution changes in the log */
+    private static final String TAG = "Resolution";
+
+    /** The scales of the resolution, from the full resolution down */
+    private static final float[] SCALES = {1f, 0.85f, 0.7f, 0.6f, 0.5f};
+
+    /** The scale of the resolution of each frame (in percent) */
+    private static final Counter SCALE = Metrics.getCounter("resolution.scale");
+
+    /** The view displaying the surface */
+    private final SurfaceView view;
+
+    /** The frame time above which the resolution is scaled down (in nanoseconds) */
+    private final long upper;
+
+    /** The frame time below which frames are on time (in nanoseconds) */
+    private final long lower;
+
+    /** The number of frames in the rolling window of frame times */
+    private final int window;
+
+    /** The number of frames the resolution is held after each change */
+    private final int hold;
+
+    /** The greatest number of frames on time required before scaling up */
+    private final int limit;
+
+    /** The index of the current scale */
+    private volatile int level;
+
+    /** The rolling average of the frame time (in nanoseconds) */
+    private long average;
+
+    /** The time of the previous frame (in nanoseconds), or zero before the first frame */
+    private long previous;
+
+    /** The number of frames left before the resolution may change again */
+    private int remaining;
+
+    /** The number of consecutive frames on time */
+    private int stable;
+
+    /** The number of consecutive frames on time required before scaling up */
+    private int probe;
+
+    /** Whether the resolution was scaled up and has not yet held */
+    private boolean raised;
+
+    /**
+     * @param view The view displaying the surface
+     * @param upper The frame time above which the resolution is scaled down (in nanoseconds)
+     * @param lower The frame time below which frames are on time (in nanoseconds)
+     * @param window The number of frames in the rolling window of frame times
+     * @param hold The number of frames the resolution is held after each change
+     * @param limit The greatest number of frames on time required before scaling up
+     */
+    Resolution(SurfaceView view, long upper, long lower, int window, int hold, int limit) {
+
+        this.view = view;
+        this.upper = upper;
+        this.lower = lower;
+        this.window = window;
+        this.hold = hold;
+        this.limit = limit;
+        this.remaining = hold;
+        this.probe = hold;
+    }
+
+    /**
+     * Record a frame rendered at the specified time, changing the resolution if the rolling average of the frame time
+     * has left the budget. Called by the thread rendering the frames.
+     *
+     * @param time The time of the frame (in nanoseconds)
+     */
+    public void frame(long time) {
+
+        SCALE.add((long) (SCALES[level] * 100f));
+
+        if (previous == 0L) {
+
+            previous = time;
+
+            return;
+        }
+
+        long interval = time - previous;
+
+        previous = time;
+        average = average == 0L ? interval : average + (interval - average) / window;
+
+        if (remaining > 0) {
+
+            remaining--;
+
+            return;
+        }
+
+        if (average > upper) {
+
+            stable = 0;
+
+            if (level < SCALES.length - 1) {
+
+                if (raised) {
+
+                    probe = Math.min(probe * 2, limit);
+                    raised = false;
+                }
+
+                change(level + 1);
+            }
+
+        } else if (average < lower) {
+
+            stable++;
+
+            if (stable == hold) {
+
+                raised = false;
+            }
+
+            if (stable >= probe && level > 0) {
+
+                stable = 0;
+                raised = true;
+
+                change(level - 1);
+            }
+
+        } else {
+
+            stable = 0;
+        }
+    }
+
+    /**
+     * Resize the surface to the current scale of the resolution. Called on the thread of the view.
+     */
+    @Override
+    public void run() {
+
+        SurfaceHolder holder = view.getHolder();
+        float scale = SCALES[level];
+
+        if (scale == 1f) {
+
+            holder.setSizeFromLayout();
+
+        } else {
+
+            holder.setFixedSize((int) (view.getWidth() * scale), (int) (view.getHeight() * scale));
+        }
+    }
+
+    /**
+     * Change the resolution to the scale with the specified index, resizing the surface on the thread of the view
+     *
+     * @param index The index of the scale
+     */
+    private void change(int index) {
+
+        Log.i(TAG, "Scaling from " + SCALES[level] + " to " + SCALES[index] + " at " + average / 1000L + "us");
+
+        level = index;
+        remaining = hold;
+
+        view.post(this);
+    }
+}
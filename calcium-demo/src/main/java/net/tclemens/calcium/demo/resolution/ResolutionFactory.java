@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.resolution;
+
+import android.view.SurfaceView;
+
+/**
+ * This class is responsible for creating and initializing resolutions
+ *
+ * @author Tim Clemens
+ */
+public final class ResolutionFactory {
+
+    /** The frame time below which frames are on time, one 60 Hz frame plus vsync jitter (in nanoseconds) */
+    private static final long LOWER = 1000000000L / 60L * 105L / 100L;
+
+    /** The number of frames in the rolling window of frame times */
+    private static final int WINDOW = 16;
+
+    /** The number of frames the resolution is held after each change, long enough to refill the window */
+    private static final int HOLD = 60;
+
+    /** The greatest number of frames on time required before scaling up, about a minute at 60 Hz */
+    private static final int LIMIT = 3840;
+
+    /** The number of nanoseconds in a millisecond */
+    private static final long NANOSECONDS = 1000000L;
+
+    private ResolutionFactory() {
+    }
+
+    /**
+     * Create a resolution for the surface of the specified view that scales with the frame time. The resolution is
+     * scaled down while the average frame time exceeds the budget, and back up after a run of frames on time. The
+     * surface is returned to the size of the view, since a previous resolution may have left it scaled down. Called
+     * on the thread of the view.
+     *
+     * @param view The view displaying the surface
+     * @param budget The frame time budget (in milliseconds), above the frame time of frames on time
+     *
+     * @return The resolution
+     *
+     * @throws IllegalArgumentException If the budget is not above the frame time of frames on time
+     */
+    public static Resolution createDynamic(SurfaceView view, long budget) {
+
+        if (budget * NANOSECONDS <= LOWER) {
+
+            throw new IllegalArgumentException("Budget out of range: " + budget);
+        }
+
+        view.getHolder().setSizeFromLayout();
+
+        return new Resolution(view, budget * NANOSECONDS, LOWER, WINDOW, HOLD, LIMIT);
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.resource;
+
+import android.content.ComponentCallbacks2;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This class represents a cache of GPU resources with an estimated size in bytes, kept under a byte budget by
+ * evicting the least recently used resources first. Evicting a resource only drops the reference of the cache, so
+ * whatever still uses it keeps it, and it is released once nothing does.
+ *
+ * @param <K> The type of the key of each resource
+ * @param <V> The type of the resources
+ *
+ * @author Tim Clemens
+ */
+public final class Cache<K, V> {
+
+    /** The cached resources, from the least to the most recently used */
+    private final Map<K, V> resources = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** The estimated size of each cached resource (in bytes) */
+    private final Map<K, Long> sizes = new HashMap<>();
+
+    /** The greatest estimated size of the cached resources (in bytes) */
+    private final long budget;
+
+    /** The estimated size of the cached resources (in bytes) */
+    private long cached;
+
+    /** The estimated size of the resources evicted so far (in bytes) */
+    private long evicted;
+
+    /** The number of resources found in the cache */
+    private long hits;
+
+    /** The number of resources not found in the cache */
+    private long misses;
+
+    /**
+     * @param budget The greatest estimated size of the cached resources (in bytes)
+     */
+    Cache(long budget) {
+
+        this.budget = budget;
+    }
+
+    /**
+     * Get the resource with the specified key, marking it as the most recently used
+     *
+     * @param key The key
+     *
+     * @return The resource, or <tt>null</tt> if it is not cached
+     */
+    public synchronized V get(K key) {
+
+        V resource = resources.get(key);
+
+        if (resource == null) {
+
+            misses++;
+
+        } else {
+
+            hits++;
+        }
+
+        return resource;
+    }
+
+    /**
+     * Cache the specified resource as the most recently used, evicting the least recently used resources until the
+     * cache is back under its budget
+     *
+     * @param key The key
+     * @param resource The resource
+     * @param size The estimated size of the resource (in bytes)
+     */
+    public synchronized void put(K key, V resource, long size) {
+
+        Long previous = sizes.put(key, size);
+
+        if (previous != null) {
+
+            cached -= previous;
+        }
+
+        resources.put(key, resource);
+        cached += size;
+
+        evict(budget);
+    }
+
+    /**
+     * Evict resources in response to the specified memory trim level. The cache is emptied once the app is hidden or
+     * memory is critically low, and shrunk to part of its budget while memory is getting low.
+     *
+     * @param level The trim level, as passed to {@link ComponentCallbacks2#onTrimMemory(int)}
+     */
+    public synchronized void trim(int level) {
+
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) {
+
+            evict(0L);
+
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+
+            evict(budget / 2L);
+
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE) {
+
+            evict(budget * 3L / 4L);
+        }
+    }
+
+    /**
+     * Evict every cached resource, such as when the GL context holding them is about to be lost
+     */
+    public synchronized void clear() {
+
+        evict(0L);
+    }
+
+    /**
+     * Get the number of cached resources
+     *
+     * @return The number of cached resources
+     */
+    public synchronized int getCount() {
+
+        return resources.size();
+    }
+
+    /**
+     * Get the estimated size of the cached resources
+     *
+     * @return The size (in bytes)
+     */
+    public synchronized long getCached() {
+
+        return cached;
+    }
+
+    /**
+     * Get the estimated size of the resources evicted so far
+     *
+     * @return The size (in bytes)
+     */
+    public synchronized long getEvicted() {
+
+        return evicted;
+    }
+
+    /**
+     * Get the number of resources found in the cache
+     *
+     * @return The number of hits
+     */
+    public synchronized long getHits() {
+
+        return hits;
+    }
+
+    /**
+     * Get the number of resources not found in the cache
+     *
+     * @return The number of misses
+     */
+    public synchronized long getMisses() {
+
+        return misses;
+    }
+
+    /**
+     * Evict the least recently used resources until the estimated size of the cached resources is within the
+     * specified limit
+     *
+     * @param limit The limit (in bytes)
+     */
+    private void evict(long limit) {
+
+        Iterator<K> keys = resources.keySet().iterator();
+
+        while (cached > limit && keys.hasNext()) {
+
+            long size = sizes.remove(keys.next());
+
+            keys.remove();
+            cached -= size;
+            evicted += size;
+        }
+    }
+}
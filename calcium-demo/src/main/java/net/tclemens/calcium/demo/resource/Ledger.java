@@ -0,0 +1,191 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.resource;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * This class represents the accounting of the memory used by the fonts, textures, programs, meshes, states and other
+ * resources of the app, by kind and by owning class, readable in the app and from tests. A resource counts as live
+ * until the garbage collector finds it unreachable, so resources kept by a state that should have been released,
+ * such as by every state after repeated transitions, show up as a growing count.
+ *
+ * The sizes are estimates of the memory held on the heap or the GPU, given when each resource is tracked.
+ *
+ * @author Tim Clemens
+ */
+public final class Ledger {
+
+    /** The log tag of the ledger report */
+    public static final String TAG = "Ledger";
+
+    /** The number of bytes in a kilobyte */
+    private static final long KILOBYTES = 1024L;
+
+    /** The usage of each kind of resource by name */
+    private static final Map<String, Usage> TYPES = new TreeMap<>();
+
+    /** The usage of the resources of each owner by class name */
+    private static final Map<String, Usage> OWNERS = new TreeMap<>();
+
+    /** The queue of the tracked resources that are no longer reachable */
+    private static final ReferenceQueue<Object> QUEUE = new ReferenceQueue<>();
+
+    /** The tracked resources, kept reachable until they are released */
+    private static final Set<Tracked> LIVE = new HashSet<>();
+
+    private Ledger() {
+    }
+
+    /**
+     * Track the specified resource until it is no longer reachable
+     *
+     * @param type The kind of the resource
+     * @param owner The class owning the resource
+     * @param resource The resource
+     * @param size The estimated size of the resource (in bytes)
+     */
+    public static synchronized void track(String type, Class<?> owner, Object resource, long size) {
+
+        release();
+
+        LIVE.add(new Tracked(resource, QUEUE, getUsage(TYPES, type), getUsage(OWNERS, owner.getSimpleName()), size));
+    }
+
+    /**
+     * Get the usage of the specified kind of resource
+     *
+     * @param type The kind of the resource
+     *
+     * @return The usage
+     */
+    public static synchronized Usage getType(String type) {
+
+        release();
+
+        return getUsage(TYPES, type);
+    }
+
+    /**
+     * Get the usage of the resources of the specified owner
+     *
+     * @param owner The class owning the resources
+     *
+     * @return The usage
+     */
+    public static synchronized Usage getOwner(Class<?> owner) {
+
+        release();
+
+        return getUsage(OWNERS, owner.getSimpleName());
+    }
+
+    /**
+     * Forget every tracked resource and every usage, so that tests start from an empty ledger
+     */
+    static synchronized void reset() {
+
+        while (QUEUE.poll() != null) {
+
+            // The released resources are forgotten along with the rest
+        }
+
+        LIVE.clear();
+        TYPES.clear();
+        OWNERS.clear();
+    }
+
+    /**
+     * Create a report of the usage of every kind of resource and then of every owner, one line per usage
+     *
+     * @return The report
+     */
+    public static synchronized String toReport() {
+
+        release();
+
+        StringBuilder builder = new StringBuilder();
+
+        append(builder, "type", TYPES);
+        append(builder, "owner", OWNERS);
+
+        return builder.toString();
+    }
+
+    /**
+     * Append one line of the report per usage of the specified map
+     *
+     * @param builder The builder of the report
+     * @param prefix The prefix of each name
+     * @param usages The usages by name
+     */
+    private static void append(StringBuilder builder, String prefix, Map<String, Usage> usages) {
+
+        for (Map.Entry<String, Usage> entry : usages.entrySet()) {
+
+            Usage usage = entry.getValue();
+
+            builder.append(String.format(Locale.US, "%s.%s count=%d size=%dKB peak=%d peakSize=%dKB tracked=%d%n",
+                    prefix, entry.getKey(), usage.getCount(), usage.getSize() / KILOBYTES, usage.getPeakCount(),
+                    usage.getPeakSize() / KILOBYTES, usage.getTracked()));
+        }
+    }
+
+    /**
+     * Get the usage with the specified name, registering it if it does not exist
+     *
+     * @param usages The usages by name
+     * @param name The name of the usage
+     *
+     * @return The usage
+     */
+    private static Usage getUsage(Map<String, Usage> usages, String name) {
+
+        Usage usage = usages.get(name);
+
+        if (usage == null) {
+
+            usage = ResourceFactory.createUsage();
+
+            usages.put(name, usage);
+        }
+
+        return usage;
+    }
+
+    /**
+     * Release every tracked resource found unreachable since the last release
+     */
+    private static void release() {
+
+        for (Reference<?> reference = QUEUE.poll(); reference != null; reference = QUEUE.poll()) {
+
+            Tracked tracked = (Tracked) reference;
+
+            if (LIVE.remove(tracked)) {
+
+                tracked.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.resource;
+
+/**
+ * This class is responsible for creating and initializing caches of GPU resources and the accounting of their usage
+ *
+ * @author Tim Clemens
+ */
+public final class ResourceFactory {
+
+    private ResourceFactory() {
+    }
+
+    /**
+     * Create an empty cache
+     *
+     * @param budget The greatest estimated size of the cached resources (in bytes)
+     * @param <K> The type of the key of each resource
+     * @param <V> The type of the resources
+     *
+     * @return The cache
+     */
+    public static <K, V> Cache<K, V> createCache(long budget) {
+
+        return new Cache<>(budget);
+    }
+
+    /**
+     * Create an empty usage
+     *
+     * @return The usage
+     */
+    public static Usage createUsage() {
+
+        return new Usage();
+    }
+}
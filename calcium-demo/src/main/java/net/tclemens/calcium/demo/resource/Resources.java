@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.resource;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * This class represents the registry of named caches of GPU resources, trimmed together on memory pressure
+ *
+ * @author Tim Clemens
+ */
+public final class Resources {
+
+    /** The log tag of the resources report */
+    public static final String TAG = "Resources";
+
+    /** The number of bytes in a kilobyte */
+    private static final long KILOBYTES = 1024L;
+
+    /** The registered caches by name */
+    private static final Map<String, Cache<?, ?>> CACHES = new TreeMap<>();
+
+    private Resources() {
+    }
+
+    /**
+     * Get the cache with the specified name, registering it with the specified budget if it does not exist
+     *
+     * @param name The name of the cache
+     * @param budget The greatest estimated size of the cached resources (in bytes)
+     * @param <K> The type of the key of each resource
+     * @param <V> The type of the resources
+     *
+     * @return The cache
+     */
+    @SuppressWarnings("unchecked")
+    public static synchronized <K, V> Cache<K, V> getCache(String name, long budget) {
+
+        Cache<K, V> cache = (Cache<K, V>) CACHES.get(name);
+
+        if (cache == null) {
+
+            cache = ResourceFactory.createCache(budget);
+
+            CACHES.put(name, cache);
+        }
+
+        return cache;
+    }
+
+    /**
+     * Evict resources from every registered cache in response to the specified memory trim level
+     *
+     * @param level The trim level, as passed to {@link android.content.ComponentCallbacks2#onTrimMemory(int)}
+     */
+    public static synchronized void trim(int level) {
+
+        for (Cache<?, ?> cache : CACHES.values()) {
+
+            cache.trim(level);
+        }
+    }
+
+    /**
+     * Create a report of every registered cache, one line per cache
+     *
+     * @return The report
+     */
+    public static synchronized String toReport() {
+
+        StringBuilder builder = new StringBuilder();
+
+        for (Map.Entry<String, Cache<?, ?>> entry : CACHES.entrySet()) {
+
+            Cache<?, ?> cache = entry.getValue();
+            long requests = Math.max(1L, cache.getHits() + cache.getMisses());
+
+            builder.append(String.format(Locale.US,
+                    "%s count=%d cached=%dKB evicted=%dKB hits=%d misses=%d hit=%d%%%n",
+                    entry.getKey(), cache.getCount(), cache.getCached() / KILOBYTES, cache.getEvicted() / KILOBYTES,
+                    cache.getHits(), cache.getMisses(), 100L * cache.getHits() / requests));
+        }
+
+        return builder.toString();
+    }
+}
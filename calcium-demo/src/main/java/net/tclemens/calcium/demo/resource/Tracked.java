@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.resource;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+
+/**
+ * This class represents a resource tracked by the {@link Ledger}, enqueued once the resource is no longer reachable
+ *
+ * @author Tim Clemens
+ */
+final class Tracked extends WeakReference<Object> {
+
+    /** The usage of the kind of the resource */
+    private final Usage type;
+
+    /** The usage of the owner of the resource */
+    private final Usage owner;
+
+    /** The estimated size of the resource (in bytes) */
+    private final long size;
+
+    /**
+     * @param resource The resource
+     * @param queue The queue the resource is enqueued on once it is no longer reachable
+     * @param type The usage of the kind of the resource
+     * @param owner The usage of the owner of the resource
+     * @param size The estimated size of the resource (in bytes)
+     */
+    Tracked(Object resource, ReferenceQueue<Object> queue, Usage type, Usage owner, long size) {
+
+        super(resource, queue);
+
+        this.type = type;
+        this.owner = owner;
+        this.size = size;
+
+        type.add(size);
+        owner.add(size);
+    }
+
+    /**
+     * Remove the resource from the usage of its kind and owner once it is no longer reachable
+     */
+    void release() {
+
+        type.remove(size);
+        owner.remove(size);
+    }
+}
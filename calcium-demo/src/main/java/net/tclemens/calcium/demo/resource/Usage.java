@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.resource;
+
+/**
+ * This class represents the memory used by one kind of resource, or by the resources of one owner: the number and
+ * estimated size of the live resources, and the largest of each since the app started
+ *
+ * @author Tim Clemens
+ */
+public final class Usage {
+
+    /** The number of live resources */
+    private long count;
+
+    /** The estimated size of the live resources (in bytes) */
+    private long size;
+
+    /** The largest number of live resources */
+    private long peakCount;
+
+    /** The largest estimated size of the live resources (in bytes) */
+    private long peakSize;
+
+    /** The number of resources tracked so far */
+    private long tracked;
+
+    Usage() {
+    }
+
+    /**
+     * Add a live resource
+     *
+     * @param size The estimated size of the resource (in bytes)
+     */
+    synchronized void add(long size) {
+
+        count++;
+        tracked++;
+
+        this.size += size;
+
+        peakCount = Math.max(peakCount, count);
+        peakSize = Math.max(peakSize, this.size);
+    }
+
+    /**
+     * Remove a resource that is no longer live
+     *
+     * @param size The estimated size of the resource (in bytes)
+     */
+    synchronized void remove(long size) {
+
+        count--;
+
+        this.size -= size;
+    }
+
+    /**
+     * Get the number of live resources
+     *
+     * @return The number of resources
+     */
+    public synchronized long getCount() {
+
+        return count;
+    }
+
+    /**
+     * Get the estimated size of the live resources
+     *
+     * @return The size (in bytes)
+     */
+    public synchronized long getSize() {
+
+        return size;
+    }
+
+    /**
+     * Get the largest number of live resources
+     *
+     * @return The number of resources
+     */
+    public synchronized long getPeakCount() {
+
+        return peakCount;
+    }
+
+    /**
+     * Get the largest estimated size of the live resources
+     *
+     * @return The size (in bytes)
+     */
+    public synchronized long getPeakSize() {
+
+        return peakSize;
+    }
+
+    /**
+     * Get the number of resources tracked so far, live or not
+     *
+     * @return The number of resources
+     */
+    public synchronized long getTracked() {
+
+        return tracked;
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.simulation;
+
+/**
+ * This interface represents work over a range of indices that can be split into independent chunks
+ *
+ * @author Tim Clemens
+ */
+public interface Chunked {
+
+    /**
+     * Evaluate the specified chunk of indices
+     *
+     * @param from The first index of the chunk (inclusive)
+     * @param to The last index of the chunk (exclusive)
+     */
+    void evaluate(int from, int to);
+}
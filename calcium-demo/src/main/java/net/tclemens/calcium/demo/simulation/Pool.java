@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.simulation;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class represents a small pool of threads that evaluates chunked work in parallel. Chunks are not assigned up
+ * front; every thread, including the calling thread, keeps taking the next unclaimed chunk until none are left, so
+ * a thread that falls behind simply takes fewer chunks. Work below a threshold is evaluated on the calling thread.
+ *
+ * A pool runs one piece of work at a time and is meant to be driven by a single thread.
+ *
+ * @author Tim Clemens
+ */
+public final class Pool {
+
+    /** The threads helping the calling thread */
+    private final ExecutorService executor;
+
+    /** The number of threads helping the calling thread */
+    private final int helpers;
+
+    /** The number of indices below which work is evaluated on the calling thread */
+    private final int threshold;
+
+    /** The number of indices in each chunk */
+    private final int chunk;
+
+    /** The index of the first unclaimed chunk of the current work */
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    /** The task run by each helping thread */
+    private final Runnable task = new Runnable() {
+
+        @Override
+        public void run() {
+
+            try {
+
+                drain();
+
+            } finally {
+
+                latch.countDown();
+            }
+        }
+    };
+
+    /** The current work */
+    private volatile Chunked work;
+
+    /** The number of indices of the current work */
+    private volatile int count;
+
+    /** The latch released once every helping thread has finished the current work */
+    private volatile CountDownLatch latch;
+
+    /**
+     * @param executor The threads helping the calling thread
+     * @param helpers The number of threads helping the calling thread
+     * @param threshold The number of indices below which work is evaluated on the calling thread
+     * @param chunk The number of indices in each chunk
+     */
+    Pool(ExecutorService executor, int helpers, int threshold, int chunk) {
+
+        this.executor = executor;
+        this.helpers = helpers;
+        this.threshold = threshold;
+        this.chunk = chunk;
+    }
+
+    /**
+     * Evaluate the specified work over the specified number of indices, returning once every chunk is evaluated
+     *
+     * @param work The work
+     * @param count The number of indices
+     */
+    public void run(Chunked work, int count) {
+
+        if (helpers == 0 || count < threshold) {
+
+            work.evaluate(0, count);
+
+            return;
+        }
+
+        this.work = work;
+        this.count = count;
+        this.latch = new CountDownLatch(helpers);
+
+        cursor.set(0);
+
+        for (int index = 0; index < helpers; index++) {
+
+            executor.execute(task);
+        }
+
+        drain();
+
+        boolean interrupted = false;
+
+        while (true) {
+
+            try {
+
+                latch.await();
+
+                break;
+
+            } catch (InterruptedException e) {
+
+                interrupted = true;
+            }
+        }
+
+        this.work = null;
+
+        if (interrupted) {
+
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Get the number of threads evaluating work, including the calling thread
+     *
+     * @return The number of threads
+     */
+    public int getThreads() {
+
+        return helpers + 1;
+    }
+
+    /**
+     * Evaluate unclaimed chunks of the current work until none are left
+     */
+    private void drain() {
+
+        Chunked work = this.work;
+        int count = this.count;
+        int from;
+
+        while ((from = cursor.getAndAdd(chunk)) < count) {
+
+            work.evaluate(from, Math.min(count, from + chunk));
+        }
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.simulation;
+
+/**
+ * This interface represents anything advanced by a fixed-step simulation
+ *
+ * @author Tim Clemens
+ */
+public interface Simulated {
+
+    /**
+     * Advance by one fixed step, keeping the previous step so that rendering can interpolate between the two
+     *
+     * @param seconds The duration of the step (in seconds)
+     */
+    void step(float seconds);
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.simulation;
+
+/**
+ * This class represents a fixed-step simulation loop. Elapsed time is accumulated and consumed in steps of a fixed
+ * duration, so the cost and outcome of the simulation do not depend on the render rate. The remainder that does not
+ * fill a whole step is returned as the fraction to interpolate by between the last two steps.
+ *
+ * @author Tim Clemens
+ */
+public final class Simulation {
+
+    /** The maximum number of steps taken by a single advance, after which elapsed time is dropped */
+    private static final int STEPS = 8;
+
+    /** The number of nanoseconds in a second */
+    private static final float NANOSECONDS = 1000000000f;
+
+    /** The simulated object */
+    private final Simulated simulated;
+
+    /** The duration of each step (in nanoseconds) */
+    private final long step;
+
+    /** The time of the previous advance (in nanoseconds), or zero before the first advance */
+    private long previous;
+
+    /** The elapsed time not yet consumed by a step (in nanoseconds) */
+    private long accumulated;
+
+    /** The number of steps taken since the simulation was created */
+    private long steps;
+
+    /**
+     * @param simulated The simulated object
+     * @param step The duration of each step (in nanoseconds)
+     */
+    Simulation(Simulated simulated, long step) {
+
+        this.simulated = simulated;
+        this.step = step;
+    }
+
+    /**
+     * Advance the simulation to the specified time
+     *
+     * @param time The time (in nanoseconds)
+     *
+     * @return The fraction of a step to interpolate by between the last two steps (between <tt>0</tt> and
+     * <tt>1</tt>)
+     */
+    public float advance(long time) {
+
+        if (previous != 0L) {
+
+            accumulated += time - previous;
+        }
+
+        previous = time;
+
+        float seconds = step / NANOSECONDS;
+        int count = 0;
+
+        while (accumulated >= step && count < STEPS) {
+
+            simulated.step(seconds);
+
+            accumulated -= step;
+            count++;
+        }
+
+        steps += count;
+        accumulated %= step;
+
+        return (float) accumulated / step;
+    }
+
+    /**
+     * Get the number of steps taken since the simulation was created
+     *
+     * @return The number of steps
+     */
+    public long getSteps() {
+
+        return steps;
+    }
+}
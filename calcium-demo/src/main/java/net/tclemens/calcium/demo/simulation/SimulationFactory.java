@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.simulation;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * This class is responsible for creating and initializing simulations
+ *
+ * @author Tim Clemens
+ */
+public final class SimulationFactory {
+
+    /** The number of nanoseconds in a second */
+    private static final long NANOSECONDS = 1000000000L;
+
+    /** The number of indices below which the work of a pool is evaluated on the calling thread */
+    private static final int THRESHOLD = 4096;
+
+    /** The number of indices in each chunk of the work of a pool */
+    private static final int CHUNK = 1024;
+
+    private SimulationFactory() {
+    }
+
+    /**
+     * Create a simulation stepping the specified object at a fixed rate
+     *
+     * @param simulated The simulated object
+     * @param rate The number of steps per second, at least one and at most one per nanosecond
+     *
+     * @return The simulation
+     *
+     * @throws IllegalArgumentException If the rate is out of range
+     */
+    public static Simulation createFixed(Simulated simulated, int rate) {
+
+        if (rate < 1 || rate > NANOSECONDS) {
+
+            throw new IllegalArgumentException("Rate out of range: " + rate);
+        }
+
+        return new Simulation(simulated, NANOSECONDS / rate);
+    }
+
+    /**
+     * Create a pool evaluating chunked work on the specified number of threads, including the calling thread
+     *
+     * @param threads The number of threads
+     *
+     * @return The pool
+     */
+    public static Pool createPool(int threads) {
+
+        int helpers = Math.max(0, threads - 1);
+        ExecutorService executor = helpers == 0 ? null : createExecutor(helpers);
+
+        return new Pool(executor, helpers, THRESHOLD, CHUNK);
+    }
+
+    /**
+     * Create an executor with the specified number of daemon threads
+     *
+     * @param threads The number of threads
+     *
+     * @return The executor
+     */
+    private static ExecutorService createExecutor(int threads) {
+
+        return Executors.newFixedThreadPool(threads, new ThreadFactory() {
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+
+                Thread thread = new Thread(runnable, "Pool");
+
+                thread.setDaemon(true);
+
+                return thread;
+            }
+        });
+    }
+}
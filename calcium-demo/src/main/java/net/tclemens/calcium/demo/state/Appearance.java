@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.state;
+
+import net.tclemens.calcium.demo.label.Label;
+import net.tclemens.calcium.engine.graphics.color.Color;
+
+/**
+ * This class represents the color and label of a moving state, prepared ahead of the transition to it
+ *
+ * @author Tim Clemens
+ */
+final class Appearance {
+
+    /** The color of the box and label */
+    private final Color color;
+
+    /** The label to display */
+    private final Label label;
+
+    /**
+     * @param color The color of the box and label
+     * @param label The label to display
+     */
+    Appearance(Color color, Label label) {
+
+        this.color = color;
+        this.label = label;
+    }
+
+    /**
+     * Get the color of the box and label
+     *
+     * @return The color
+     */
+    Color getColor() {
+
+        return color;
+    }
+
+    /**
+     * Get the label to display
+     *
+     * @return The label
+     */
+    Label getLabel() {
+
+        return label;
+    }
+}
@@ -19,6 +19,11 @@ package net.tclemens.calcium.demo.state;
 import android.content.Context;
 import android.support.annotation.NonNull;
 
+import net.tclemens.calcium.demo.benchmark.Benchmark;
+import net.tclemens.calcium.demo.dispatch.DispatchFactory;
+import net.tclemens.calcium.demo.dispatch.Dispatcher;
+import net.tclemens.calcium.demo.dispatch.Handler;
+import net.tclemens.calcium.demo.resolution.Resolution;
 import net.tclemens.calcium.engine.updates.base.Updatable;
 import net.tclemens.calcium.engine.updates.event.Event;
 import net.tclemens.calcium.engine.updates.event.ViewEvent;
@@ -30,20 +35,82 @@ import net.tclemens.calcium.engine.updates.event.ViewEvent;
  */
 final class InitialState implements Updatable {
 
-    InitialState() {
+    /** The handlers of the events received by the state */
+    private static final Dispatcher<InitialState> DISPATCHER = createDispatcher();
+
+    /** The stress benchmark to run, or <tt>null</tt> to run the demo */
+    private final Benchmark benchmark;
+
+    /** The number of boxes in the swarm to display, or zero to run the demo */
+    private final int bodies;
+
+    /** The number of simulation steps per second of the swarm */
+    private final int rate;
+
+    /** Whether the boxes of the swarm collide with each other */
+    private final boolean colliding;
+
+    /** The resolution of the swarm scaled with the frame time, or <tt>null</tt> to render at the full resolution */
+    private final Resolution resolution;
+
+    /**
+     * @param benchmark The stress benchmark to run, or <tt>null</tt> to run the demo
+     * @param bodies The number of boxes in the swarm to display, or zero to run the demo
+     * @param rate The number of simulation steps per second of the swarm
+     * @param colliding Whether the boxes of the swarm collide with each other
+     * @param resolution The resolution of the swarm scaled with the frame time, or <tt>null</tt> to render at the full
+     *                   resolution
+     */
+    InitialState(Benchmark benchmark, int bodies, int rate, boolean colliding, Resolution resolution) {
+
+        this.benchmark = benchmark;
+        this.bodies = bodies;
+        this.rate = rate;
+        this.colliding = colliding;
+        this.resolution = resolution;
     }
 
     @NonNull
     @Override
     public Updatable update(@NonNull Context context, @NonNull Event event) {
 
-        if (event instanceof ViewEvent) {
+        return DISPATCHER.dispatch(this, context, event);
+    }
+
+    /**
+     * Create the handlers of the events received by the state. The first view event starts the benchmark, the swarm,
+     * or the demo at the dimensions of the view.
+     *
+     * @return The handlers
+     */
+    private static Dispatcher<InitialState> createDispatcher() {
+
+        Dispatcher<InitialState> dispatcher = DispatchFactory.createDispatcher();
+
+        dispatcher.register(ViewEvent.class, new Handler<InitialState, ViewEvent>() {
+
+            @NonNull
+            @Override
+            public Updatable handle(@NonNull InitialState state, @NonNull Context context, @NonNull ViewEvent event) {
+
+                int width = event.getWidth();
+                int height = event.getHeight();
+
+                if (state.benchmark != null) {
+
+                    return StateFactory.createStress(context, event.getTime(), width, height, state.benchmark);
+                }
+
+                if (state.bodies > 0) {
 
-            ViewEvent view = (ViewEvent) event;
+                    return StateFactory.createSwarm(width, height, state.bodies, state.rate, state.colliding,
+                            state.resolution);
+                }
 
-            return StateFactory.createSplash(context, view.getWidth(), view.getHeight());
-        }
+                return StateFactory.createSplash(context, width, height);
+            }
+        });
 
-        return this;
+        return dispatcher;
     }
 }
@@ -20,6 +20,11 @@ import android.support.annotation.NonNull;
 
 import net.tclemens.calcium.demo.box.Box;
 import net.tclemens.calcium.demo.label.Label;
+import net.tclemens.calcium.demo.metric.Counter;
+import net.tclemens.calcium.demo.metric.Latency;
+import net.tclemens.calcium.demo.metric.MetricFactory;
+import net.tclemens.calcium.demo.metric.Metrics;
+import net.tclemens.calcium.demo.trace.Traceable;
 import net.tclemens.calcium.engine.graphics.base.Renderable;
 import net.tclemens.calcium.engine.graphics.batch.Batch;
 import net.tclemens.calcium.engine.graphics.camera.Camera;
@@ -38,13 +43,14 @@ import net.tclemens.calcium.math.vector.VectorFactory;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 
 /**
- * This class represents an app state where a box is moving in a direction
+ * This class represents an app state where boxes are moving in a direction
  *
  * @author Tim Clemens
  */
-abstract class MovingState implements Updatable, Renderable {
+abstract class MovingState implements Updatable, Renderable, Traceable {
 
     /** The background color of the frame */
     private static final Color BACKGROUND = ColorFactory.createColor(0, 0, 0, 255);
@@ -52,11 +58,23 @@ abstract class MovingState implements Updatable, Renderable {
     /** The refresh interval of the frame (in milliseconds) */
     private static final long INTERVAL = 1000L / 60L;
 
-    /** The box to display */
-    private final Box box;
+    /** The half height of the view */
+    private static final float EXTENT = 3f;
 
-    /** The label to display */
-    private final Label label;
+    /** The share of the view changed by each frame of a single moving box (in per mille) */
+    private static final Counter DIRTY = Metrics.getCounter("moving.dirty");
+
+    /** The latency from a touch to the second frame requested from the state it produced */
+    static final Latency LATENCY = MetricFactory.createLatency("touch");
+
+    /** The frame displaying the boxes and labels, built once when the state is created */
+    private final Frame frame;
+
+    /** The batches of the frame */
+    private final Collection<Batch> drawn;
+
+    /** The batches of the animated boxes of the frame */
+    private final Collection<Batch> animated;
 
     /** The width of the frame */
     private final int width;
@@ -64,27 +82,56 @@ abstract class MovingState implements Updatable, Renderable {
     /** The height of the frame */
     private final int height;
 
+    /** The sweep of the single moving box, or <tt>null</tt> if the changed area is not measured */
+    private final Sweep sweep;
+
+    /** The <tt>x</tt> position of the moving box in the previous frame, or NaN before the first frame */
+    private float previous = Float.NaN;
+
     /**
-     * @param box The box to display
-     * @param label The label to display
+     * @param boxes The boxes to display
+     * @param labels The labels to display
      * @param width The width of the frame
      * @param height The height of the frame
+     * @param sweep The sweep of the single moving box, or <tt>null</tt> if the changed area is not measured
      */
-    MovingState(Box box, Label label, int width, int height) {
+    MovingState(Collection<Box> boxes, Collection<Label> labels, int width, int height, Sweep sweep) {
+
+        Collection<Batch> drawn = createBatches(boxes, labels);
+        Collection<Scene> scenes = createScenes(drawn, width, height);
 
-        this.box = box;
-        this.label = label;
+        this.frame = FrameFactory.createDynamic(scenes, BACKGROUND, width, height, INTERVAL);
+        this.drawn = drawn;
+        this.animated = createBatches(boxes, Collections.<Label>emptyList());
         this.width = width;
         this.height = height;
+        this.sweep = sweep;
     }
 
     @NonNull
     @Override
-    public final Frame render() {
+    public Frame render() {
+
+        LATENCY.render(this);
 
-        Collection<Scene> scenes = createScenes(box, label, width, height);
+        if (sweep != null) {
 
-        return FrameFactory.createDynamic(scenes, BACKGROUND, width, height, INTERVAL);
+            DIRTY.add(measureDirty(System.currentTimeMillis()));
+        }
+
+        return frame;
+    }
+
+    @Override
+    public final Collection<Batch> getDrawn() {
+
+        return drawn;
+    }
+
+    @Override
+    public final Collection<Batch> getAnimated() {
+
+        return animated;
     }
 
     /**
@@ -108,19 +155,58 @@ abstract class MovingState implements Updatable, Renderable {
     }
 
     /**
-     * Create a collection of scenes from the specified box, label, and frame dimensions
+     * Measure the share of the view changed since the previous frame, as the union of the areas covered by the moving
+     * box in the previous and the current frame, clipped to the view. The label never changes, the first frame of the
+     * state changes the whole view, and a frame with the box where it was changes nothing.
      *
-     * @param box The box to display
-     * @param label The label to display
+     * @param time The time of the frame (in milliseconds since the epoch)
+     *
+     * @return The share of the view (in per mille)
+     */
+    private int measureDirty(long time) {
+
+        float x = sweep.getX(time);
+        float last = previous;
+
+        previous = x;
+
+        if (Float.isNaN(last)) {
+
+            return 1000;
+        }
+
+        if (x == last) {
+
+            return 0;
+        }
+
+        float half = sweep.getHalf();
+        float h = EXTENT;
+        float w = h * width / height;
+        float left = Math.max(Math.min(x, last) - half, -w);
+        float right = Math.min(Math.max(x, last) + half, w);
+        float dirtyHeight = Math.min(half, h) * 2f;
+
+        if (right <= left) {
+
+            return 0;
+        }
+
+        return (int) (1000f * (right - left) * dirtyHeight / (4f * w * h));
+    }
+
+    /**
+     * Create a collection of scenes from the specified batches and frame dimensions
+     *
+     * @param batches The batches to display
      * @param width The width of the frame
      * @param height The height of the frame
      *
      * @return The collection of scenes
      */
-    private static Collection<Scene> createScenes(Box box, Label label, int width, int height) {
+    private static Collection<Scene> createScenes(Collection<Batch> batches, int width, int height) {
 
         Camera camera = createCamera(width, height);
-        Collection<Batch> batches = createBatches(box, label);
         Collection<Scene> scenes = new ArrayList<>(1);
 
         scenes.add(SceneFactory.createDynamic(camera, batches));
@@ -142,7 +228,7 @@ abstract class MovingState implements Updatable, Renderable {
         Vector3D center = VectorFactory.createPosition3D(0f, 0f, 0f);
         Vector3D up = VectorFactory.createPosition3D(0f, 1f, 0f);
 
-        float h = 3f;
+        float h = EXTENT;
         float w = h * width / height;
 
         Matrix3D view = MatrixFactory.createView3D(eye, center, up);
@@ -152,19 +238,27 @@ abstract class MovingState implements Updatable, Renderable {
     }
 
     /**
-     * Create a collection of batches from the specified box and label
+     * Create a collection of batches from the specified boxes and labels. The opaque boxes are submitted before the
+     * translucent labels so that the labels blend over the boxes.
      *
-     * @param box The box to display
-     * @param label The label to display
+     * @param boxes The boxes to display
+     * @param labels The labels to display
      *
      * @return The collection of batches
      */
-    private static Collection<Batch> createBatches(Box box, Label label) {
+    private static Collection<Batch> createBatches(Collection<Box> boxes, Collection<Label> labels) {
+
+        Collection<Batch> batches = new ArrayList<>(boxes.size() + labels.size());
+
+        for (Box box : boxes) {
+
+            batches.add(box.toBatch());
+        }
 
-        Collection<Batch> batches = new ArrayList<>(2);
+        for (Label label : labels) {
 
-        batches.add(box.toBatch());
-        batches.add(label.toBatch());
+            batches.add(label.toBatch());
+        }
 
         return batches;
     }
@@ -20,6 +20,9 @@ import android.content.Context;
 import android.support.annotation.NonNull;
 
 import net.tclemens.calcium.demo.box.Box;
+import net.tclemens.calcium.demo.dispatch.DispatchFactory;
+import net.tclemens.calcium.demo.dispatch.Dispatcher;
+import net.tclemens.calcium.demo.dispatch.Handler;
 import net.tclemens.calcium.demo.label.Label;
 import net.tclemens.calcium.engine.updates.base.Updatable;
 import net.tclemens.calcium.engine.updates.event.AnimationEvent;
@@ -27,6 +30,8 @@ import net.tclemens.calcium.engine.updates.event.Event;
 import net.tclemens.calcium.engine.updates.event.TouchEvent;
 import net.tclemens.calcium.engine.updates.input.Touch;
 
+import java.util.Collections;
+
 /**
  * This class represents an app state with a box moving to the right
  *
@@ -34,36 +39,71 @@ import net.tclemens.calcium.engine.updates.input.Touch;
  */
 final class RightState extends MovingState {
 
+    /** The handlers of the events received by the state */
+    private static final Dispatcher<RightState> DISPATCHER = createDispatcher();
+
     /**
      * @param box The box to display
      * @param label The label to display
      * @param width The width of the frame
      * @param height The height of the frame
+     * @param sweep The sweep of the box
      */
-    RightState(Box box, Label label, int width, int height) {
+    RightState(Box box, Label label, int width, int height, Sweep sweep) {
 
-        super(box, label, width, height);
+        super(Collections.singletonList(box), Collections.singletonList(label), width, height, sweep);
     }
 
     @NonNull
     @Override
     public Updatable update(@NonNull Context context, @NonNull Event event) {
 
-        if (event instanceof TouchEvent) {
+        return DISPATCHER.dispatch(this, context, event);
+    }
+
+    /**
+     * Create the handlers of the events received by the state. Releasing a touch restarts the box, and the end of its
+     * animation reverses it.
+     *
+     * @return The handlers
+     */
+    private static Dispatcher<RightState> createDispatcher() {
+
+        Dispatcher<RightState> dispatcher = DispatchFactory.createDispatcher();
 
-            TouchEvent touch = (TouchEvent) event;
+        dispatcher.register(TouchEvent.class, new Handler<RightState, TouchEvent>() {
 
-            if (touch.getInput() == Touch.UP) {
+            @NonNull
+            @Override
+            public Updatable handle(@NonNull RightState state, @NonNull Context context, @NonNull TouchEvent event) {
 
-                return StateFactory.createRight(context, event.getTime(), getWidth(), getHeight());
+                if (event.getInput() != Touch.UP) {
+
+                    return state;
+                }
+
+                LATENCY.receive(event.getTime());
+
+                Updatable next = StateFactory.createRight(context, event.getTime(), state.getWidth(),
+                        state.getHeight());
+
+                LATENCY.update(next);
+
+                return next;
             }
-        }
+        });
+
+        dispatcher.register(AnimationEvent.class, new Handler<RightState, AnimationEvent>() {
 
-        if (event instanceof AnimationEvent) {
+            @NonNull
+            @Override
+            public Updatable handle(@NonNull RightState state, @NonNull Context context,
+                                    @NonNull AnimationEvent event) {
 
-            return StateFactory.createLeft(context, event.getTime(), getWidth(), getHeight());
-        }
+                return StateFactory.createLeft(context, event.getTime(), state.getWidth(), state.getHeight());
+            }
+        });
 
-        return this;
+        return dispatcher;
     }
 }
@@ -21,8 +21,13 @@ import android.support.annotation.NonNull;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 
+import net.tclemens.calcium.demo.dispatch.DispatchFactory;
+import net.tclemens.calcium.demo.dispatch.Dispatcher;
+import net.tclemens.calcium.demo.dispatch.Handler;
 import net.tclemens.calcium.demo.label.Label;
+import net.tclemens.calcium.demo.trace.Traceable;
 import net.tclemens.calcium.engine.graphics.base.Renderable;
 import net.tclemens.calcium.engine.graphics.batch.Batch;
 import net.tclemens.calcium.engine.graphics.camera.Camera;
@@ -49,7 +54,7 @@ import net.tclemens.calcium.math.vector.VectorFactory;
  *
  * @author Tim Clemens
  */
-final class SplashState implements Updatable, Schedulable, Renderable {
+final class SplashState implements Updatable, Schedulable, Renderable, Traceable {
 
     /** The background color of the frame */
     private static final Color BACKGROUND = ColorFactory.createColor(0, 0, 0, 255);
@@ -60,8 +65,14 @@ final class SplashState implements Updatable, Schedulable, Renderable {
     /** The delay between the start of this state and the next state */
     private static final long DELAY = 2000L;
 
-    /** The label to display */
-    private final Label label;
+    /** The handlers of the events received by the state */
+    private static final Dispatcher<SplashState> DISPATCHER = createDispatcher();
+
+    /** The frame displaying the label, built once since nothing in it ever changes */
+    private final Frame frame;
+
+    /** The batches of the frame */
+    private final Collection<Batch> drawn;
 
     /** The width of the frame */
     private final int width;
@@ -76,7 +87,11 @@ final class SplashState implements Updatable, Schedulable, Renderable {
      */
     SplashState(Label label, int width, int height) {
 
-        this.label = label;
+        Collection<Batch> drawn = createBatches(label);
+        Collection<Scene> scenes = createScenes(drawn, width, height);
+
+        this.frame = FrameFactory.createStatic(scenes, BACKGROUND, width, height);
+        this.drawn = drawn;
         this.width = width;
         this.height = height;
     }
@@ -85,17 +100,7 @@ final class SplashState implements Updatable, Schedulable, Renderable {
     @Override
     public Updatable update(@NonNull Context context, @NonNull Event event) {
 
-        if (event instanceof ActionEvent) {
-
-            ActionEvent action = (ActionEvent) event;
-
-            if (ACTION.equals(action.getName())) {
-
-                return StateFactory.createLeft(context, event.getTime(), width, height);
-            }
-        }
-
-        return this;
+        return DISPATCHER.dispatch(this, context, event);
     }
 
     @NonNull
@@ -111,24 +116,35 @@ final class SplashState implements Updatable, Schedulable, Renderable {
     @Override
     public Frame render() {
 
-        Collection<Scene> scenes = createScenes(label, width, height);
+        StateFactory.FIRST_FRAME.reach();
+
+        return frame;
+    }
+
+    @Override
+    public Collection<Batch> getDrawn() {
+
+        return drawn;
+    }
+
+    @Override
+    public Collection<Batch> getAnimated() {
 
-        return FrameFactory.createStatic(scenes, BACKGROUND, width, height);
+        return Collections.emptyList();
     }
 
     /**
-     * Create a collection of scenes from the specified label and frame dimensions
+     * Create a collection of scenes from the specified batches and frame dimensions
      *
-     * @param label The label to display
+     * @param batches The batches to display
      * @param width The width of the frame
      * @param height The height of the frame
      *
      * @return The collection of scenes
      */
-    private static Collection<Scene> createScenes(Label label, int width, int height) {
+    private static Collection<Scene> createScenes(Collection<Batch> batches, int width, int height) {
 
         Camera camera = createCamera(width, height);
-        Collection<Batch> batches = createBatches(label);
         Collection<Scene> scenes = new ArrayList<>(1);
 
         scenes.add(SceneFactory.createDynamic(camera, batches));
@@ -174,4 +190,31 @@ final class SplashState implements Updatable, Schedulable, Renderable {
 
         return batches;
     }
+
+    /**
+     * Create the handlers of the events received by the state. The start action moves on to the first moving box.
+     *
+     * @return The handlers
+     */
+    private static Dispatcher<SplashState> createDispatcher() {
+
+        Dispatcher<SplashState> dispatcher = DispatchFactory.createDispatcher();
+
+        dispatcher.register(ActionEvent.class, new Handler<SplashState, ActionEvent>() {
+
+            @NonNull
+            @Override
+            public Updatable handle(@NonNull SplashState state, @NonNull Context context, @NonNull ActionEvent event) {
+
+                if (!ACTION.equals(event.getName())) {
+
+                    return state;
+                }
+
+                return StateFactory.createLeft(context, event.getTime(), state.width, state.height);
+            }
+        });
+
+        return dispatcher;
+    }
 }
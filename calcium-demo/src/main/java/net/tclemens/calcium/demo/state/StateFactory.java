@@ -18,10 +18,24 @@ package net.tclemens.calcium.demo.state;
 
 import android.content.Context;
 
+import net.tclemens.calcium.demo.benchmark.Benchmark;
 import net.tclemens.calcium.demo.box.Box;
 import net.tclemens.calcium.demo.box.BoxFactory;
 import net.tclemens.calcium.demo.label.Label;
 import net.tclemens.calcium.demo.label.LabelFactory;
+import net.tclemens.calcium.demo.metric.Allocations;
+import net.tclemens.calcium.demo.metric.Counter;
+import net.tclemens.calcium.demo.metric.MetricFactory;
+import net.tclemens.calcium.demo.metric.Metrics;
+import net.tclemens.calcium.demo.metric.Milestone;
+import net.tclemens.calcium.demo.resolution.Resolution;
+import net.tclemens.calcium.demo.resource.Ledger;
+import net.tclemens.calcium.demo.simulation.Pool;
+import net.tclemens.calcium.demo.simulation.Simulation;
+import net.tclemens.calcium.demo.simulation.SimulationFactory;
+import net.tclemens.calcium.demo.swarm.Swarm;
+import net.tclemens.calcium.demo.swarm.SwarmFactory;
+import net.tclemens.calcium.demo.trace.Traceable;
 import net.tclemens.calcium.engine.graphics.animation.Animation;
 import net.tclemens.calcium.engine.graphics.animation.AnimationFactory;
 import net.tclemens.calcium.engine.graphics.animation.interpolation.Interpolation;
@@ -30,6 +44,8 @@ import net.tclemens.calcium.engine.graphics.animation.transformation.Transformat
 import net.tclemens.calcium.engine.graphics.animation.transformation.TransformationFactory;
 import net.tclemens.calcium.engine.graphics.color.Color;
 import net.tclemens.calcium.engine.graphics.color.ColorFactory;
+import net.tclemens.calcium.engine.graphics.material.Material;
+import net.tclemens.calcium.engine.graphics.mesh.Mesh;
 import net.tclemens.calcium.engine.updates.base.Updatable;
 import net.tclemens.calcium.math.matrix.Matrix3D;
 import net.tclemens.calcium.math.matrix.MatrixFactory;
@@ -38,10 +54,22 @@ import net.tclemens.calcium.math.vector.VectorFactory;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
- * This class is responsible for creating and initializing states
+ * This class is responsible for creating and initializing states. The labels and appearances of upcoming states are
+ * prepared on a worker thread, which relies on the font, texture, material and program factories of calcium-core
+ * only building CPU-side descriptions without any GL calls: the engine creates the GL objects for them lazily, on
+ * its own thread, when they are first drawn. Anything that needs the GL context stays on the engine thread.
  *
  * @author Tim Clemens
  */
@@ -50,18 +78,150 @@ public final class StateFactory {
     /** A position at the center of the screen */
     private static final Vector3D CENTER = VectorFactory.createPosition3D(0f, 0f, 0f);
 
-    /** A position at the bottom of the screen */
-    private static final Vector3D BOTTOM = VectorFactory.createPosition3D(0f, -2f, 0f);
+    /** The vertical position of a label at the bottom of the screen */
+    private static final float BOTTOM = -2f;
 
     /** The random number generator used to generate colors */
     private static final Random RANDOM = new Random();
 
+    /** The number of colors of the boxes and labels, few enough that the resources drawn in each color are shared */
+    private static final int SHADES = 16;
+
+    /** The colors of the boxes and labels */
+    private static final Color[] COLORS = createColors(SHADES);
+
     /** The duration of each moving state */
     private static final long DURATION = 2000L;
 
+    /** The half size of the box of a moving state */
+    private static final float HALF = 0.5f;
+
+    /** The distance from the center within which stress boxes and labels are placed */
+    private static final float SPREAD = 2f;
+
+    /** The half height of the visible area, matching the camera of each state */
+    private static final float EXTENT = 3f;
+
+    /** The half size of a box, keeping the boxes of a swarm inside their area */
+    private static final float MARGIN = 0.5f;
+
+    /** The size of the area roamed by a swarm, relative to the visible area */
+    private static final float WORLD = 2f;
+
+    /** The share of the visible area covered by the boxes of a colliding swarm */
+    private static final float FILL = 0.25f;
+
+    /** The number of colors of the boxes of a swarm */
+    private static final int PALETTE = 4;
+
+    /** The estimated size of each batch of a state (in bytes), its models and their transformations */
+    private static final long BATCH_SIZE = 256L;
+
+    /**
+     * The estimated size of each box of a swarm (in bytes), its positions, velocities, translations and color, plus
+     * its entry in the grid of a colliding swarm
+     */
+    private static final long BODY_SIZE = 48L;
+
+    /** The pool evaluating the swarm on every available core, starting its threads on first use */
+    private static final Pool POOL = SimulationFactory.createPool(Runtime.getRuntime().availableProcessors());
+
+    /** The immediate translation to the start of a left moving box, shared by every left animation */
+    private static final Animation LEFT_START = createFirstAnimation(1f, 0f);
+
+    /** The immediate translation to the start of a right moving box, shared by every right animation */
+    private static final Animation RIGHT_START = createFirstAnimation(-1f, 0f);
+
+    /** The objects allocated by each transition to a moving state, recorded only while allocations are counted */
+    private static final Counter TRANSITIONS = Metrics.getCounter("transition.allocations");
+
+    /** The time from the creation of the app to its first frame, reached by the render of every first state */
+    static final Milestone FIRST_FRAME = MetricFactory.createMilestone("startup.frame");
+
+    /** The worker preparing the appearance of upcoming states */
+    private static final ExecutorService WORKER = createWorker();
+
+    /** The label being prepared for the splash state, or <tt>null</tt> if it is not prepared ahead */
+    private static final AtomicReference<Future<Label>> SPLASH = new AtomicReference<>();
+
+    /** The appearance being prepared for the next left moving state */
+    private static final AtomicReference<Future<Appearance>> LEFT = new AtomicReference<>();
+
+    /** The appearance being prepared for the next right moving state */
+    private static final AtomicReference<Future<Appearance>> RIGHT = new AtomicReference<>();
+
+    /** The appearance of the left moving state last shown, whose label is ready, or <tt>null</tt> before it */
+    private static final AtomicReference<Appearance> LEFT_SHOWN = new AtomicReference<>();
+
+    /** The appearance of the right moving state last shown, whose label is ready, or <tt>null</tt> before it */
+    private static final AtomicReference<Appearance> RIGHT_SHOWN = new AtomicReference<>();
+
+    /** The transitions to a moving state that used a placeholder rather than wait for the appearance being prepared */
+    private static final Counter PLACEHOLDERS = Metrics.getCounter("transition.placeholders");
+
     private StateFactory() {
     }
 
+    /**
+     * Start measuring the time to the first frame as the app is created. Preparing the first states starts loading
+     * the font, drawing its glyphs and building the splash label and the first moving labels on the worker, while
+     * the engine and its surface are created on the calling thread.
+     *
+     * @param context The application context
+     * @param prepared Whether the first states are prepared on the worker rather than when they are created
+     */
+    public static void start(Context context, boolean prepared) {
+
+        FIRST_FRAME.start();
+
+        if (!prepared) {
+
+            return;
+        }
+
+        final Context application = context.getApplicationContext();
+        final Color color = createRandomColor();
+
+        SPLASH.set(WORKER.submit(new Callable<Label>() {
+
+            @Override
+            public Label call() {
+
+                return LabelFactory.createLabel(0f, 0f, application, color, "Hello", SplashState.class);
+            }
+        }));
+
+        LEFT.set(prepareAppearance(context, "Left", LeftState.class));
+        RIGHT.set(prepareAppearance(context, "Right", RightState.class));
+    }
+
+    /**
+     * Release the GL resources shared between states once the engine has stopped, since its GL context may be lost
+     * before it starts again. The prepared labels are dropped, and the shared programs and cached materials are
+     * released on the calling thread, then again on the worker after the preparation in progress, so that nothing it
+     * caches with them is left over. The calling thread does not wait for the worker.
+     */
+    public static void stop() {
+
+        cancel(SPLASH);
+        cancel(LEFT);
+        cancel(RIGHT);
+
+        LEFT_SHOWN.set(null);
+        RIGHT_SHOWN.set(null);
+
+        release();
+
+        WORKER.execute(new Runnable() {
+
+            @Override
+            public void run() {
+
+                release();
+            }
+        });
+    }
+
     /**
      * Create an initial state
      *
@@ -69,11 +229,39 @@ public final class StateFactory {
      */
     public static Updatable createInitial() {
 
-        return new InitialState();
+        return new InitialState(null, 0, 0, false, null);
+    }
+
+    /**
+     * Create an initial state that runs the specified stress benchmark instead of the demo
+     *
+     * @param benchmark The stress benchmark
+     *
+     * @return The state
+     */
+    public static Updatable createInitial(Benchmark benchmark) {
+
+        return new InitialState(benchmark, 0, 0, false, null);
     }
 
     /**
-     * Create a splash state
+     * Create an initial state that displays a swarm of boxes advanced by a fixed-step simulation instead of the demo
+     *
+     * @param bodies The number of boxes in the swarm
+     * @param rate The number of simulation steps per second
+     * @param colliding Whether the boxes collide with each other
+     * @param resolution The resolution scaled with the frame time, or <tt>null</tt> to render at the full resolution
+     *
+     * @return The state
+     */
+    public static Updatable createInitial(int bodies, int rate, boolean colliding, Resolution resolution) {
+
+        return new InitialState(null, bodies, rate, colliding, resolution);
+    }
+
+    /**
+     * Create a splash state. The label comes from the worker if it was prepared as the app was created, and the
+     * appearance of the first moving states starts being prepared unless it already is.
      *
      * @param context The application context
      * @param width The frame width
@@ -83,14 +271,29 @@ public final class StateFactory {
      */
     public static Updatable createSplash(Context context, int width, int height) {
 
-        Color color = createRandomColor();
-        Label label = LabelFactory.createLabel(CENTER, context, color, "Hello");
+        Label label = take(SPLASH.getAndSet(null));
+
+        if (label == null) {
+
+            label = LabelFactory.createLabel(0f, 0f, context, createRandomColor(), "Hello", SplashState.class);
+        }
 
-        return new SplashState(label, width, height);
+        if (LEFT.get() == null) {
+
+            LEFT.set(prepareAppearance(context, "Left", LeftState.class));
+        }
+
+        if (RIGHT.get() == null) {
+
+            RIGHT.set(prepareAppearance(context, "Right", RightState.class));
+        }
+
+        return track(new SplashState(label, width, height));
     }
 
     /**
-     * Create a left moving state
+     * Create a left moving state. The label and color come from the appearance prepared in the background during the
+     * previous state, so the transition only has to build the box and its animation.
      *
      * @param context The application context
      * @param start The start time
@@ -101,16 +304,26 @@ public final class StateFactory {
      */
     public static Updatable createLeft(Context context, long start, int width, int height) {
 
+        boolean counting = Allocations.isCounting();
+        int allocations = Allocations.getThreadCount();
         Animation animation = createLeftAnimation(start);
-        Color color = createRandomColor();
-        Box box = BoxFactory.createBox(CENTER, animation, color);
-        Label label = LabelFactory.createLabel(BOTTOM, context, color, "Left");
+        Appearance appearance = takeAppearance(LEFT, LEFT_SHOWN, context, "Left", LeftState.class);
+        Box box = BoxFactory.createBox(CENTER, animation, appearance.getColor(), LeftState.class);
+
+        Sweep sweep = new Sweep(start, DURATION, 1f, -2f, HALF);
+        LeftState state = new LeftState(box, appearance.getLabel(), width, height, sweep);
+
+        if (counting) {
+
+            TRANSITIONS.add(Allocations.getThreadCount() - allocations);
+        }
 
-        return new LeftState(box, label, width, height);
+        return track(state);
     }
 
     /**
-     * Create a right moving state
+     * Create a right moving state. The label and color come from the appearance prepared in the background during
+     * the previous state, so the transition only has to build the box and its animation.
      *
      * @param context The application context
      * @param start The start time
@@ -121,12 +334,297 @@ public final class StateFactory {
      */
     public static Updatable createRight(Context context, long start, int width, int height) {
 
+        boolean counting = Allocations.isCounting();
+        int allocations = Allocations.getThreadCount();
         Animation animation = createRightAnimation(start);
-        Color color = createRandomColor();
-        Box box = BoxFactory.createBox(CENTER, animation, color);
-        Label label = LabelFactory.createLabel(BOTTOM, context, color, "Right");
+        Appearance appearance = takeAppearance(RIGHT, RIGHT_SHOWN, context, "Right", RightState.class);
+        Box box = BoxFactory.createBox(CENTER, animation, appearance.getColor(), RightState.class);
+
+        Sweep sweep = new Sweep(start, DURATION, -1f, 2f, HALF);
+        RightState state = new RightState(box, appearance.getLabel(), width, height, sweep);
+
+        if (counting) {
+
+            TRANSITIONS.add(Allocations.getThreadCount() - allocations);
+        }
+
+        return track(state);
+    }
+
+    /**
+     * Create a stress state for the current step of the specified benchmark. Each box moves left or right with its
+     * own random color and start time, and each label is placed at a random position. Boxes of the same color share
+     * a material, so unless the benchmark is unbatched they are grouped into batches of up to
+     * {@link BoxFactory#MODELS} boxes each.
+     *
+     * @param context The application context
+     * @param start The start time
+     * @param width The frame width
+     * @param height The frame height
+     * @param benchmark The stress benchmark
+     *
+     * @return The state
+     */
+    public static Updatable createStress(Context context, long start, int width, int height, Benchmark benchmark) {
+
+        int count = benchmark.getBoxes();
+        int models = benchmark.isBatched() ? BoxFactory.MODELS : 1;
+        int[] shades = new int[COLORS.length];
+        Collection<Box> boxes = new ArrayList<>(count / models + COLORS.length);
+        Collection<Label> labels = new ArrayList<>(benchmark.getLabels());
+        int index = 0;
+
+        for (int box = 0; box < count; box++) {
+
+            shades[RANDOM.nextInt(COLORS.length)]++;
+        }
+
+        for (int shade = 0; shade < COLORS.length; shade++) {
+
+            for (int first = 0; first < shades[shade]; first += models) {
+
+                int size = Math.min(models, shades[shade] - first);
+                List<Vector3D> positions = new ArrayList<>(size);
+                List<Animation> animations = new ArrayList<>(size);
+
+                for (int model = 0; model < size; model++, index++) {
+
+                    long offset = start + RANDOM.nextInt((int) DURATION);
+
+                    positions.add(createRandomPosition());
+                    animations.add(index % 2 == 0 ? createLeftAnimation(offset) : createRightAnimation(offset));
+                }
+
+                boxes.add(BoxFactory.createBoxes(positions, animations, COLORS[shade], StressState.class));
+            }
+        }
+
+        for (int label = 0; label < benchmark.getLabels(); label++) {
+
+            String symbols = label % 2 == 0 ? "Left" : "Right";
+
+            float x = createRandomOffset();
+            float y = createRandomOffset();
+
+            labels.add(LabelFactory.createLabel(x, y, context, createRandomColor(), symbols, StressState.class));
+        }
 
-        return new RightState(box, label, width, height);
+        benchmark.begin();
+
+        return track(new StressState(boxes, labels, width, height, benchmark));
+    }
+
+    /**
+     * Create a swarm state with boxes moving within an area larger than the visible area, each drawn in one of a
+     * small palette of colors. Colliding boxes instead bounce off each other within the visible area, sized so that
+     * together they cover a fixed share of it.
+     *
+     * @param width The frame width
+     * @param height The frame height
+     * @param bodies The number of boxes in the swarm
+     * @param rate The number of simulation steps per second
+     * @param colliding Whether the boxes collide with each other
+     * @param resolution The resolution scaled with the frame time, or <tt>null</tt> to render at the full resolution
+     *
+     * @return The state
+     */
+    public static Updatable createSwarm(int width, int height, int bodies, int rate, boolean colliding,
+                                        Resolution resolution) {
+
+        float h = EXTENT;
+        float w = EXTENT * width / height;
+        float half = colliding ? Math.min(MARGIN, (float) Math.sqrt(FILL * w * h / bodies)) : MARGIN;
+        Swarm swarm = colliding
+                ? SwarmFactory.createColliding(bodies, PALETTE, w - half, h - half, 2f * half, POOL)
+                : SwarmFactory.createSwarm(bodies, PALETTE, w * WORLD - MARGIN, h * WORLD - MARGIN, POOL);
+        Simulation simulation = SimulationFactory.createFixed(swarm, rate);
+        Mesh mesh = BoxFactory.createMesh(CENTER, 2f * half, SwarmState.class);
+        Material[] materials = new Material[PALETTE];
+
+        for (int index = 0; index < PALETTE; index++) {
+
+            materials[index] = BoxFactory.getMaterial(createRandomColor(), SwarmState.class);
+        }
+
+        Ledger.track("swarm", SwarmState.class, swarm, bodies * BODY_SIZE);
+
+        return track(new SwarmState(swarm, simulation, mesh, materials, w + half, h + half, resolution, width, height));
+    }
+
+    /**
+     * Track the specified state in the ledger until it is no longer reachable, with the estimated size of its batches
+     *
+     * @param state The state
+     * @param <T> The type of the state
+     *
+     * @return The state
+     */
+    private static <T extends Traceable> T track(T state) {
+
+        Ledger.track("state", state.getClass(), state, state.getDrawn().size() * BATCH_SIZE);
+
+        return state;
+    }
+
+    /**
+     * Release the shared programs and the cached materials and layouts of boxes and labels
+     */
+    private static void release() {
+
+        BoxFactory.release();
+        LabelFactory.release();
+    }
+
+    /**
+     * Take the appearance prepared in the specified slot and start preparing the one after it. If nothing has been
+     * prepared yet, the appearance is created on the calling thread. If the appearance is still being prepared, the
+     * transition does not wait for it: it shows the appearance last shown for the same symbols again, whose label is
+     * ready, and leaves the prepared appearance to the next transition.
+     *
+     * @param slot The slot holding the appearance being prepared
+     * @param shown The slot holding the appearance last shown for the same symbols
+     * @param context The application context
+     * @param symbols The symbols of the label
+     * @param owner The class of the state the appearance is for
+     *
+     * @return The appearance
+     */
+    private static Appearance takeAppearance(AtomicReference<Future<Appearance>> slot,
+                                             AtomicReference<Appearance> shown, Context context, String symbols,
+                                             Class<?> owner) {
+
+        Future<Appearance> future = slot.get();
+        Appearance placeholder = shown.get();
+
+        if (future != null && !future.isDone() && placeholder != null) {
+
+            PLACEHOLDERS.add(1L);
+
+            return placeholder;
+        }
+
+        slot.set(prepareAppearance(context, symbols, owner));
+
+        Appearance appearance = take(future);
+
+        if (appearance == null) {
+
+            appearance = createAppearance(context, createRandomColor(), symbols, owner);
+        }
+
+        shown.set(appearance);
+
+        return appearance;
+    }
+
+    /**
+     * Drop the preparation in the specified slot, cancelling it if it has not started
+     *
+     * @param slot The slot holding the preparation
+     * @param <T> The type of the result
+     */
+    private static <T> void cancel(AtomicReference<Future<T>> slot) {
+
+        Future<T> future = slot.getAndSet(null);
+
+        if (future != null) {
+
+            future.cancel(false);
+        }
+    }
+
+    /**
+     * Take the result of the specified preparation on the worker, waiting for it if it is not ready yet
+     *
+     * @param future The preparation, or <tt>null</tt> if nothing has been prepared
+     * @param <T> The type of the result
+     *
+     * @return The result, or <tt>null</tt> if nothing has been prepared or the preparation failed, in which case
+     * creating it again on the calling thread rethrows the failure there
+     */
+    private static <T> T take(Future<T> future) {
+
+        if (future == null) {
+
+            return null;
+        }
+
+        try {
+
+            return future.get();
+
+        } catch (InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+
+        } catch (CancellationException | ExecutionException e) {
+
+            // The caller creates the result again
+        }
+
+        return null;
+    }
+
+    /**
+     * Start preparing an appearance with the specified symbols on the worker
+     *
+     * @param context The application context
+     * @param symbols The symbols of the label
+     * @param owner The class of the state the appearance is for
+     *
+     * @return The appearance being prepared
+     */
+    private static Future<Appearance> prepareAppearance(Context context, final String symbols, final Class<?> owner) {
+
+        final Context application = context.getApplicationContext();
+
+        return WORKER.submit(new Callable<Appearance>() {
+
+            @Override
+            public Appearance call() {
+
+                return createAppearance(application, createRandomColor(), symbols, owner);
+            }
+        });
+    }
+
+    /**
+     * Create an appearance with the specified color and a label with the specified symbols
+     *
+     * @param context The application context
+     * @param color The color of the box and label
+     * @param symbols The symbols of the label
+     * @param owner The class of the state the appearance is for
+     *
+     * @return The appearance
+     */
+    private static Appearance createAppearance(Context context, Color color, String symbols, Class<?> owner) {
+
+        Label label = LabelFactory.createLabel(0f, BOTTOM, context, color, symbols, owner);
+
+        return new Appearance(color, label);
+    }
+
+    /**
+     * Create the worker preparing the appearance of upcoming states
+     *
+     * @return The worker
+     */
+    private static ExecutorService createWorker() {
+
+        return Executors.newSingleThreadExecutor(new ThreadFactory() {
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+
+                Thread thread = new Thread(runnable, "StateFactory");
+
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+
+                return thread;
+            }
+        });
     }
 
     /**
@@ -140,7 +638,7 @@ public final class StateFactory {
 
         Collection<Animation> animations = new ArrayList<>(2);
 
-        animations.add(createFirstAnimation(1f, 0f));
+        animations.add(LEFT_START);
         animations.add(createSecondAnimation(start, -2f, 0f));
 
         return AnimationFactory.createComposite(animations);
@@ -157,7 +655,7 @@ public final class StateFactory {
 
         Collection<Animation> animations = new ArrayList<>(2);
 
-        animations.add(createFirstAnimation(-1f, 0f));
+        animations.add(RIGHT_START);
         animations.add(createSecondAnimation(start, 2f, 0f));
 
         return AnimationFactory.createComposite(animations);
@@ -196,12 +694,61 @@ public final class StateFactory {
     }
 
     /**
-     * Create a random color
+     * Create a random position near the center of the screen
+     *
+     * @return The position
+     */
+    private static Vector3D createRandomPosition() {
+
+        return VectorFactory.createPosition3D(createRandomOffset(), createRandomOffset(), 0f);
+    }
+
+    /**
+     * Create a random offset from the center of the screen along one axis
+     *
+     * @return The offset
+     */
+    private static float createRandomOffset() {
+
+        return (RANDOM.nextFloat() * 2f - 1f) * SPREAD;
+    }
+
+    /**
+     * Pick a random color from the colors of the boxes and labels
      *
      * @return The color
      */
     private static Color createRandomColor() {
 
+        return COLORS[RANDOM.nextInt(COLORS.length)];
+    }
+
+    /**
+     * Create the specified number of random colors
+     *
+     * @param count The number of colors
+     *
+     * @return The colors
+     */
+    private static Color[] createColors(int count) {
+
+        Color[] colors = new Color[count];
+
+        for (int index = 0; index < count; index++) {
+
+            colors[index] = createColor();
+        }
+
+        return colors;
+    }
+
+    /**
+     * Create a random color
+     *
+     * @return The color
+     */
+    private static Color createColor() {
+
         int red = Math.abs(RANDOM.nextInt()) % (Color.DEPTH - 1);
         int green = Math.abs(RANDOM.nextInt()) % (Color.DEPTH - 1);
         int blue = Math.abs(RANDOM.nextInt()) % (Color.DEPTH - 1);
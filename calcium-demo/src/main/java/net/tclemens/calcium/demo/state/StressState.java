@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.state;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+
+import net.tclemens.calcium.demo.benchmark.Benchmark;
+import net.tclemens.calcium.demo.box.Box;
+import net.tclemens.calcium.demo.dispatch.DispatchFactory;
+import net.tclemens.calcium.demo.dispatch.Dispatcher;
+import net.tclemens.calcium.demo.dispatch.Handler;
+import net.tclemens.calcium.demo.label.Label;
+import net.tclemens.calcium.engine.graphics.frame.Frame;
+import net.tclemens.calcium.engine.schedules.action.Action;
+import net.tclemens.calcium.engine.schedules.action.ActionFactory;
+import net.tclemens.calcium.engine.schedules.base.Schedulable;
+import net.tclemens.calcium.engine.updates.base.Updatable;
+import net.tclemens.calcium.engine.updates.event.ActionEvent;
+import net.tclemens.calcium.engine.updates.event.Event;
+
+import java.util.Collection;
+
+/**
+ * This class represents an app state with many moving boxes, used as one step of a stress benchmark
+ *
+ * @author Tim Clemens
+ */
+final class StressState extends MovingState implements Schedulable {
+
+    /** The name of the action used to finish the current step of the benchmark */
+    private static final String ACTION = "Step";
+
+    /** The handlers of the events received by the state */
+    private static final Dispatcher<StressState> DISPATCHER = createDispatcher();
+
+    /** The benchmark measuring this state */
+    private final Benchmark benchmark;
+
+    /**
+     * @param boxes The boxes to display
+     * @param labels The labels to display
+     * @param width The width of the frame
+     * @param height The height of the frame
+     * @param benchmark The benchmark measuring this state
+     */
+    StressState(Collection<Box> boxes, Collection<Label> labels, int width, int height, Benchmark benchmark) {
+
+        super(boxes, labels, width, height, null);
+
+        this.benchmark = benchmark;
+    }
+
+    @NonNull
+    @Override
+    public Updatable update(@NonNull Context context, @NonNull Event event) {
+
+        return DISPATCHER.dispatch(this, context, event);
+    }
+
+    @NonNull
+    @Override
+    public Action schedule() {
+
+        long time = System.currentTimeMillis() + benchmark.getDuration();
+
+        return ActionFactory.createDelayed(ACTION, time);
+    }
+
+    @NonNull
+    @Override
+    public Frame render() {
+
+        benchmark.frame();
+
+        StateFactory.FIRST_FRAME.reach();
+
+        return super.render();
+    }
+
+    /**
+     * Create the handlers of the events received by the state. The step action ends the current step of the
+     * benchmark, and starts the next step unless the benchmark is finished.
+     *
+     * @return The handlers
+     */
+    private static Dispatcher<StressState> createDispatcher() {
+
+        Dispatcher<StressState> dispatcher = DispatchFactory.createDispatcher();
+
+        dispatcher.register(ActionEvent.class, new Handler<StressState, ActionEvent>() {
+
+            @NonNull
+            @Override
+            public Updatable handle(@NonNull StressState state, @NonNull Context context, @NonNull ActionEvent event) {
+
+                if (!ACTION.equals(event.getName())) {
+
+                    return state;
+                }
+
+                Benchmark benchmark = state.benchmark;
+                long time = event.getTime();
+
+                benchmark.end();
+
+                if (benchmark.isFinished()) {
+
+                    return StateFactory.createLeft(context, time, state.getWidth(), state.getHeight());
+                }
+
+                return StateFactory.createStress(context, time, state.getWidth(), state.getHeight(), benchmark);
+            }
+        });
+
+        return dispatcher;
+    }
+}
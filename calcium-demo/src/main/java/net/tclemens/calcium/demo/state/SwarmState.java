@@ -0,0 +1,315 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.state;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+
+import net.tclemens.calcium.demo.box.BoxFactory;
+import net.tclemens.calcium.demo.dispatch.DispatchFactory;
+import net.tclemens.calcium.demo.dispatch.Dispatcher;
+import net.tclemens.calcium.demo.dispatch.Handler;
+import net.tclemens.calcium.demo.metric.Counter;
+import net.tclemens.calcium.demo.metric.Metrics;
+import net.tclemens.calcium.demo.resolution.Resolution;
+import net.tclemens.calcium.demo.simulation.Simulation;
+import net.tclemens.calcium.demo.swarm.Swarm;
+import net.tclemens.calcium.demo.trace.Traceable;
+import net.tclemens.calcium.engine.graphics.base.Renderable;
+import net.tclemens.calcium.engine.graphics.batch.Batch;
+import net.tclemens.calcium.engine.graphics.batch.BatchFactory;
+import net.tclemens.calcium.engine.graphics.camera.Camera;
+import net.tclemens.calcium.engine.graphics.camera.CameraFactory;
+import net.tclemens.calcium.engine.graphics.color.Color;
+import net.tclemens.calcium.engine.graphics.color.ColorFactory;
+import net.tclemens.calcium.engine.graphics.frame.Frame;
+import net.tclemens.calcium.engine.graphics.frame.FrameFactory;
+import net.tclemens.calcium.engine.graphics.material.Material;
+import net.tclemens.calcium.engine.graphics.mesh.Mesh;
+import net.tclemens.calcium.engine.graphics.model.Model;
+import net.tclemens.calcium.engine.graphics.model.ModelFactory;
+import net.tclemens.calcium.engine.graphics.scene.Scene;
+import net.tclemens.calcium.engine.graphics.scene.SceneFactory;
+import net.tclemens.calcium.engine.updates.base.Updatable;
+import net.tclemens.calcium.engine.updates.event.Event;
+import net.tclemens.calcium.engine.updates.event.ViewEvent;
+import net.tclemens.calcium.math.matrix.Matrix3D;
+import net.tclemens.calcium.math.matrix.MatrixFactory;
+import net.tclemens.calcium.math.vector.Vector3D;
+import net.tclemens.calcium.math.vector.VectorFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class represents an app state with a swarm of boxes advanced by a fixed-step simulation. The simulation is
+ * advanced on every render, and the boxes are drawn at positions interpolated between the last two steps. The swarm
+ * roams an area larger than the view, so boxes outside the view are culled before batching.
+ *
+ * Each frame allocates one {@link Matrix3D} and one {@link Model} for every visible box, one {@link Batch} for every
+ * run of up to {@link BoxFactory#MODELS} visible boxes of a color, and one {@link Scene} and {@link Frame}. The lists
+ * holding them are kept across frames, since the engine draws a frame before it renders the next one.
+ *
+ * @author Tim Clemens
+ */
+final class SwarmState implements Updatable, Renderable, Traceable {
+
+    /** The background color of the frame */
+    private static final Color BACKGROUND = ColorFactory.createColor(0, 0, 0, 255);
+
+    /** The refresh interval of the frame (in milliseconds) */
+    private static final long INTERVAL = 1000L / 60L;
+
+    /** The number of boxes culled from each frame */
+    private static final Counter CULLED = Metrics.getCounter("swarm.culled");
+
+    /** The number of colliding pairs of boxes in the last step of each frame */
+    private static final Counter CONTACTS = Metrics.getCounter("swarm.contacts");
+
+    /** The handlers of the events received by the state */
+    private static final Dispatcher<SwarmState> DISPATCHER = createDispatcher();
+
+    /** The swarm to display */
+    private final Swarm swarm;
+
+    /** The simulation advancing the swarm */
+    private final Simulation simulation;
+
+    /** The mesh shared by every box of the swarm */
+    private final Mesh mesh;
+
+    /** The material of each color of the palette of the swarm */
+    private final Material[] materials;
+
+    /** The camera of the frame */
+    private final Camera camera;
+
+    /** The boxes inside the view in the current frame */
+    private final int[] visible;
+
+    /** The half width of the view, widened by the half size of a box */
+    private final float right;
+
+    /** The half height of the view, widened by the half size of a box */
+    private final float top;
+
+    /** The resolution scaled with the frame time, or <tt>null</tt> to render at the full resolution */
+    private final Resolution resolution;
+
+    /** The batches of the most recent frame, all created for that frame */
+    private final List<Batch> drawn = new ArrayList<>();
+
+    /** The models of each batch of the most recent frame, and of earlier frames with more batches */
+    private final List<List<Model>> models = new ArrayList<>();
+
+    /** The scenes of the most recent frame */
+    private final Collection<Scene> scenes = new ArrayList<>(1);
+
+    /** The width of the frame, changed by view events while frames are rendered */
+    private volatile int width;
+
+    /** The height of the frame, changed by view events while frames are rendered */
+    private volatile int height;
+
+    /**
+     * @param swarm The swarm to display
+     * @param simulation The simulation advancing the swarm
+     * @param mesh The mesh shared by every box of the swarm
+     * @param materials The material of each color of the palette of the swarm
+     * @param right The half width of the view, widened by the half size of a box
+     * @param top The half height of the view, widened by the half size of a box
+     * @param resolution The resolution scaled with the frame time, or <tt>null</tt> to render at the full resolution
+     * @param width The width of the frame
+     * @param height The height of the frame
+     */
+    SwarmState(Swarm swarm, Simulation simulation, Mesh mesh, Material[] materials, float right, float top,
+               Resolution resolution, int width, int height) {
+
+        this.swarm = swarm;
+        this.simulation = simulation;
+        this.mesh = mesh;
+        this.materials = materials;
+        this.camera = createCamera(width, height);
+        this.visible = new int[swarm.getCount()];
+        this.right = right;
+        this.top = top;
+        this.resolution = resolution;
+        this.width = width;
+        this.height = height;
+    }
+
+    @NonNull
+    @Override
+    public Updatable update(@NonNull Context context, @NonNull Event event) {
+
+        return DISPATCHER.dispatch(this, context, event);
+    }
+
+    @NonNull
+    @Override
+    public Frame render() {
+
+        long time = System.nanoTime();
+        float alpha = simulation.advance(time);
+
+        if (resolution != null) {
+
+            resolution.frame(time);
+        }
+
+        swarm.interpolate(alpha);
+
+        int count = swarm.cull(-right, -top, right, top, visible);
+
+        CULLED.add(swarm.getCount() - count);
+        CONTACTS.add(swarm.getContacts());
+
+        createBatches(count);
+
+        scenes.clear();
+        scenes.add(SceneFactory.createDynamic(camera, drawn));
+
+        StateFactory.FIRST_FRAME.reach();
+
+        return FrameFactory.createDynamic(scenes, BACKGROUND, width, height, INTERVAL);
+    }
+
+    @Override
+    public Collection<Batch> getDrawn() {
+
+        return drawn;
+    }
+
+    @Override
+    public Collection<Batch> getAnimated() {
+
+        return Collections.emptyList();
+    }
+
+    /**
+     * Create the handlers of the events received by the state. The frame follows the dimensions of the view, which
+     * change with a dynamic resolution.
+     *
+     * @return The handlers
+     */
+    private static Dispatcher<SwarmState> createDispatcher() {
+
+        Dispatcher<SwarmState> dispatcher = DispatchFactory.createDispatcher();
+
+        dispatcher.register(ViewEvent.class, new Handler<SwarmState, ViewEvent>() {
+
+            @NonNull
+            @Override
+            public Updatable handle(@NonNull SwarmState state, @NonNull Context context, @NonNull ViewEvent event) {
+
+                state.width = event.getWidth();
+                state.height = event.getHeight();
+
+                return state;
+            }
+        });
+
+        return dispatcher;
+    }
+
+    /**
+     * Replace the batches drawn with a box at the interpolated translation of each visible box of the swarm. Boxes of
+     * the same color are adjacent in the swarm, so each run of a color is split into batches of as many boxes as the
+     * program has matrices, drawn together with one upload of their matrices.
+     *
+     * @param count The number of visible boxes
+     */
+    private void createBatches(int count) {
+
+        drawn.clear();
+
+        List<Model> batch = null;
+        int color = -1;
+
+        for (int position = 0; position < count; position++) {
+
+            int index = visible[position];
+
+            if (batch == null || swarm.getColor(index) != color || batch.size() == BoxFactory.MODELS) {
+
+                if (batch != null) {
+
+                    drawn.add(BatchFactory.createDynamic(materials[color], batch));
+                }
+
+                batch = getModels(drawn.size());
+                color = swarm.getColor(index);
+            }
+
+            Matrix3D matrix = MatrixFactory.createTranslate3D(swarm.getX(index), swarm.getY(index), 0f);
+
+            batch.add(ModelFactory.createStatic(mesh, matrix));
+        }
+
+        if (batch != null) {
+
+            drawn.add(BatchFactory.createDynamic(materials[color], batch));
+        }
+    }
+
+    /**
+     * Get the empty list of models of the batch with the specified index, creating it the first time a frame has
+     * that many batches
+     *
+     * @param index The index of the batch
+     *
+     * @return The models
+     */
+    private List<Model> getModels(int index) {
+
+        if (index == models.size()) {
+
+            models.add(new ArrayList<Model>(BoxFactory.MODELS));
+        }
+
+        List<Model> batch = models.get(index);
+
+        batch.clear();
+
+        return batch;
+    }
+
+    /**
+     * Create a camera with an aspect ratio for the specified frame dimensions
+     *
+     * @param width The specified width
+     * @param height The specified height
+     *
+     * @return The camera
+     */
+    private static Camera createCamera(int width, int height) {
+
+        Vector3D eye = VectorFactory.createPosition3D(0f, 0f, 5f);
+        Vector3D center = VectorFactory.createPosition3D(0f, 0f, 0f);
+        Vector3D up = VectorFactory.createPosition3D(0f, 1f, 0f);
+
+        float h = 3f;
+        float w = h * width / height;
+
+        Matrix3D view = MatrixFactory.createView3D(eye, center, up);
+        Matrix3D projection = MatrixFactory.createOrthographic3D(-w, w, -h, h, 0f, 6f);
+
+        return CameraFactory.createStatic(projection, view);
+    }
+}
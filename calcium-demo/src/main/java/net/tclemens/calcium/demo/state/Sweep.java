@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.state;
+
+/**
+ * This class represents the horizontal sweep of the box of a moving state, a linear translation over a fixed duration
+ * matching the animation of the box, so that the area the box covers in any frame can be known outside the engine
+ *
+ * @author Tim Clemens
+ */
+final class Sweep {
+
+    /** The start time of the sweep (in milliseconds since the epoch) */
+    private final long start;
+
+    /** The duration of the sweep (in milliseconds) */
+    private final long duration;
+
+    /** The <tt>x</tt> position of the center of the box at the start */
+    private final float from;
+
+    /** The distance moved along <tt>x</tt> by the end */
+    private final float distance;
+
+    /** The half size of the box */
+    private final float half;
+
+    /**
+     * @param start The start time of the sweep (in milliseconds since the epoch)
+     * @param duration The duration of the sweep (in milliseconds)
+     * @param from The <tt>x</tt> position of the center of the box at the start
+     * @param distance The distance moved along <tt>x</tt> by the end
+     * @param half The half size of the box
+     */
+    Sweep(long start, long duration, float from, float distance, float half) {
+
+        this.start = start;
+        this.duration = duration;
+        this.from = from;
+        this.distance = distance;
+        this.half = half;
+    }
+
+    /**
+     * Get the <tt>x</tt> position of the center of the box at the specified time, held at either end outside the
+     * sweep
+     *
+     * @param time The time (in milliseconds since the epoch)
+     *
+     * @return The position
+     */
+    float getX(long time) {
+
+        float progress = Math.min(1f, Math.max(0f, (float) (time - start) / duration));
+
+        return from + distance * progress;
+    }
+
+    /**
+     * Get the half size of the box
+     *
+     * @return The half size
+     */
+    float getHalf() {
+
+        return half;
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.swarm;
+
+import java.util.Arrays;
+
+/**
+ * This class represents a uniform grid over the bounds of a swarm, indexing boxes by the cell containing their
+ * center. The grid is rebuilt from scratch with a counting sort, so building it and querying it never allocate.
+ * Boxes in the same cell are adjacent in the sorted boxes, as are the boxes of consecutive cells of a row.
+ *
+ * @author Tim Clemens
+ */
+final class Grid {
+
+    /** The half width of the bounds */
+    private final float width;
+
+    /** The half height of the bounds */
+    private final float height;
+
+    /** The size of each cell */
+    private final float size;
+
+    /** The number of columns of cells */
+    private final int columns;
+
+    /** The number of rows of cells */
+    private final int rows;
+
+    /** The index into {@link #entries} of the first box of each cell, followed by the number of boxes */
+    private final int[] starts;
+
+    /** The index into {@link #entries} of the next box added to each cell while building */
+    private final int[] offsets;
+
+    /** The boxes sorted by cell */
+    private final int[] entries;
+
+    /** The cell of each box */
+    private final int[] cells;
+
+    /**
+     * @param width The half width of the bounds
+     * @param height The half height of the bounds
+     * @param size The size of each cell
+     * @param capacity The number of boxes
+     */
+    Grid(float width, float height, float size, int capacity) {
+
+        this.width = width;
+        this.height = height;
+        this.size = size;
+        this.columns = Math.max(1, (int) Math.ceil(2f * width / size));
+        this.rows = Math.max(1, (int) Math.ceil(2f * height / size));
+        this.starts = new int[columns * rows + 1];
+        this.offsets = new int[columns * rows];
+        this.entries = new int[capacity];
+        this.cells = new int[capacity];
+    }
+
+    /**
+     * Index the boxes at the specified positions
+     *
+     * @param x The <tt>x</tt> position of each box
+     * @param y The <tt>y</tt> position of each box
+     * @param count The number of boxes
+     */
+    void build(float[] x, float[] y, int count) {
+
+        Arrays.fill(starts, 0);
+
+        for (int index = 0; index < count; index++) {
+
+            int cell = getRow(y[index]) * columns + getColumn(x[index]);
+
+            cells[index] = cell;
+            starts[cell + 1]++;
+        }
+
+        for (int cell = 0; cell < offsets.length; cell++) {
+
+            starts[cell + 1] += starts[cell];
+            offsets[cell] = starts[cell];
+        }
+
+        for (int index = 0; index < count; index++) {
+
+            entries[offsets[cells[index]]++] = index;
+        }
+    }
+
+    /**
+     * Find the boxes indexed in the cells overlapping the specified rectangle. Boxes near the edge of the rectangle
+     * may lie outside of it, so callers test the boxes found against the rectangle themselves.
+     *
+     * @param left The left edge of the rectangle
+     * @param bottom The bottom edge of the rectangle
+     * @param right The right edge of the rectangle
+     * @param top The top edge of the rectangle
+     * @param result The array receiving the boxes found
+     *
+     * @return The number of boxes found
+     */
+    int query(float left, float bottom, float right, float top, int[] result) {
+
+        int first = getColumn(left);
+        int last = getColumn(right);
+        int count = 0;
+
+        for (int row = getRow(bottom); row <= getRow(top); row++) {
+
+            int from = starts[row * columns + first];
+            int to = starts[row * columns + last + 1];
+
+            System.arraycopy(entries, from, result, count, to - from);
+
+            count += to - from;
+        }
+
+        return count;
+    }
+
+    /**
+     * Get the number of columns of cells
+     *
+     * @return The number of columns
+     */
+    int getColumns() {
+
+        return columns;
+    }
+
+    /**
+     * Get the number of rows of cells
+     *
+     * @return The number of rows
+     */
+    int getRows() {
+
+        return rows;
+    }
+
+    /**
+     * Get the index into the sorted boxes of the first box of the specified cell. The boxes of the cell end where the
+     * boxes of the next cell start.
+     *
+     * @param cell The cell, numbered by row and then by column, or the number of cells for the end of the last cell
+     *
+     * @return The index of the first box
+     */
+    int getStart(int cell) {
+
+        return starts[cell];
+    }
+
+    /**
+     * Get the box at the specified index into the sorted boxes
+     *
+     * @param index The index
+     *
+     * @return The box
+     */
+    int getEntry(int index) {
+
+        return entries[index];
+    }
+
+    /**
+     * Get the column of cells containing the specified <tt>x</tt> position, clamped to the grid
+     *
+     * @param x The <tt>x</tt> position
+     *
+     * @return The column
+     */
+    private int getColumn(float x) {
+
+        return Math.max(0, Math.min(columns - 1, (int) ((x + width) / size)));
+    }
+
+    /**
+     * Get the row of cells containing the specified <tt>y</tt> position, clamped to the grid
+     *
+     * @param y The <tt>y</tt> position
+     *
+     * @return The row
+     */
+    private int getRow(float y) {
+
+        return Math.max(0, Math.min(rows - 1, (int) ((y + height) / size)));
+    }
+}
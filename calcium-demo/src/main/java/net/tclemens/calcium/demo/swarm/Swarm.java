@@ -0,0 +1,447 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.swarm;
+
+import net.tclemens.calcium.demo.simulation.Chunked;
+import net.tclemens.calcium.demo.simulation.Pool;
+import net.tclemens.calcium.demo.simulation.Simulated;
+
+import java.util.Arrays;
+
+/**
+ * This class represents a swarm of boxes moving within fixed bounds, advanced by a fixed-step simulation. The state
+ * of the boxes is kept in parallel primitive arrays indexed by box, so that a step is a single pass over contiguous
+ * memory instead of a walk over one object per box. Large swarms split both the step and the interpolation of the
+ * translations into chunks evaluated in parallel by a {@link Pool}. A uniform {@link Grid} over the interpolated
+ * translations finds the boxes inside the view without testing every box.
+ *
+ * Boxes with a size collide with each other after every step. The same grid, built over the positions, limits the
+ * collision tests of each box to the boxes in its own and the neighboring cells, so a step stays close to linear in
+ * the number of boxes instead of testing every pair.
+ *
+ * @author Tim Clemens
+ */
+public final class Swarm implements Simulated {
+
+    /** The number of boxes */
+    private final int count;
+
+    /** The half width of the bounds */
+    private final float width;
+
+    /** The half height of the bounds */
+    private final float height;
+
+    /** The size of each box, or zero if the boxes pass through each other */
+    private final float size;
+
+    /** The <tt>x</tt> position of each box after the last step */
+    private final float[] x;
+
+    /** The <tt>y</tt> position of each box after the last step */
+    private final float[] y;
+
+    /** The <tt>x</tt> position of each box after the step before the last step */
+    private final float[] previousX;
+
+    /** The <tt>y</tt> position of each box after the step before the last step */
+    private final float[] previousY;
+
+    /** The <tt>x</tt> velocity of each box (in units per second) */
+    private final float[] velocityX;
+
+    /** The <tt>y</tt> velocity of each box (in units per second) */
+    private final float[] velocityY;
+
+    /** The color of each box, as an index into the palette of the renderer */
+    private final int[] colors;
+
+    /** The <tt>x</tt> translation of each box, interpolated between the last two steps */
+    private final float[] translationX;
+
+    /** The <tt>y</tt> translation of each box, interpolated between the last two steps */
+    private final float[] translationY;
+
+    /** The pool evaluating the step and the interpolation */
+    private final Pool pool;
+
+    /** The grid indexing the interpolated translations */
+    private final Grid grid;
+
+    /** The work advancing a chunk of boxes by one step */
+    private final Chunked stepper = new Chunked() {
+
+        @Override
+        public void evaluate(int from, int to) {
+
+            step(x, previousX, velocityX, width, seconds, from, to);
+            step(y, previousY, velocityY, height, seconds, from, to);
+        }
+    };
+
+    /** The work interpolating the translations of a chunk of boxes */
+    private final Chunked interpolator = new Chunked() {
+
+        @Override
+        public void evaluate(int from, int to) {
+
+            interpolate(x, previousX, translationX, alpha, from, to);
+            interpolate(y, previousY, translationY, alpha, from, to);
+        }
+    };
+
+    /** The duration of the current step (in seconds) */
+    private float seconds;
+
+    /** The fraction of a step of the current interpolation */
+    private float alpha;
+
+    /** The number of colliding pairs of boxes in the last step */
+    private int contacts;
+
+    /**
+     * @param x The initial <tt>x</tt> position of each box
+     * @param y The initial <tt>y</tt> position of each box
+     * @param velocityX The <tt>x</tt> velocity of each box (in units per second)
+     * @param velocityY The <tt>y</tt> velocity of each box (in units per second)
+     * @param colors The color of each box, as an index into the palette of the renderer
+     * @param width The half width of the bounds
+     * @param height The half height of the bounds
+     * @param size The size of each box, or zero if the boxes pass through each other
+     * @param pool The pool evaluating the step and the interpolation
+     * @param grid The grid indexing the interpolated translations
+     */
+    Swarm(float[] x, float[] y, float[] velocityX, float[] velocityY, int[] colors, float width, float height,
+          float size, Pool pool, Grid grid) {
+
+        this.count = x.length;
+        this.width = width;
+        this.height = height;
+        this.size = size;
+        this.x = x;
+        this.y = y;
+        this.previousX = x.clone();
+        this.previousY = y.clone();
+        this.velocityX = velocityX;
+        this.velocityY = velocityY;
+        this.colors = colors;
+        this.translationX = x.clone();
+        this.translationY = y.clone();
+        this.pool = pool;
+        this.grid = grid;
+    }
+
+    @Override
+    public void step(float seconds) {
+
+        this.seconds = seconds;
+
+        pool.run(stepper, count);
+
+        if (size > 0f) {
+
+            contacts = collide();
+        }
+    }
+
+    /**
+     * Interpolate the translation of every box between the last two steps
+     *
+     * @param alpha The fraction of a step to interpolate by
+     */
+    public void interpolate(float alpha) {
+
+        this.alpha = alpha;
+
+        pool.run(interpolator, count);
+    }
+
+    /**
+     * Find the boxes whose interpolated translation lies inside the specified rectangle. The boxes found are in
+     * ascending order, so boxes of the same color stay adjacent.
+     *
+     * @param left The left edge of the rectangle
+     * @param bottom The bottom edge of the rectangle
+     * @param right The right edge of the rectangle
+     * @param top The top edge of the rectangle
+     * @param visible The array receiving the boxes found, with room for every box
+     *
+     * @return The number of boxes found
+     */
+    public int cull(float left, float bottom, float right, float top, int[] visible) {
+
+        grid.build(translationX, translationY, count);
+
+        int found = grid.query(left, bottom, right, top, visible);
+        int kept = 0;
+
+        for (int index = 0; index < found; index++) {
+
+            int box = visible[index];
+            float x = translationX[box];
+            float y = translationY[box];
+
+            if (x >= left && x <= right && y >= bottom && y <= top) {
+
+                visible[kept++] = box;
+            }
+        }
+
+        Arrays.sort(visible, 0, kept);
+
+        return kept;
+    }
+
+    /**
+     * Get the number of boxes
+     *
+     * @return The number of boxes
+     */
+    public int getCount() {
+
+        return count;
+    }
+
+    /**
+     * Get the number of colliding pairs of boxes in the last step
+     *
+     * @return The number of colliding pairs
+     */
+    public int getContacts() {
+
+        return contacts;
+    }
+
+    /**
+     * Get the <tt>x</tt> translation of the specified box from the last interpolation
+     *
+     * @param index The index of the box
+     *
+     * @return The <tt>x</tt> translation
+     */
+    public float getX(int index) {
+
+        return translationX[index];
+    }
+
+    /**
+     * Get the <tt>y</tt> translation of the specified box from the last interpolation
+     *
+     * @param index The index of the box
+     *
+     * @return The <tt>y</tt> translation
+     */
+    public float getY(int index) {
+
+        return translationY[index];
+    }
+
+    /**
+     * Get the color of the specified box. Boxes with the same color have adjacent indices.
+     *
+     * @param index The index of the box
+     *
+     * @return The color, as an index into the palette of the renderer
+     */
+    public int getColor(int index) {
+
+        return colors[index];
+    }
+
+    /**
+     * Separate every pair of overlapping boxes. The boxes of each cell are tested against the later boxes of the same
+     * cell, the next cell of the row, and the three cells above, so that each pair of neighboring boxes is tested
+     * once.
+     *
+     * @return The number of colliding pairs
+     */
+    private int collide() {
+
+        grid.build(x, y, count);
+
+        int columns = grid.getColumns();
+        int rows = grid.getRows();
+        int found = 0;
+
+        for (int row = 0; row < rows; row++) {
+
+            for (int column = 0; column < columns; column++) {
+
+                int cell = row * columns + column;
+                int end = grid.getStart(cell + 1);
+
+                for (int index = grid.getStart(cell); index < end; index++) {
+
+                    int box = grid.getEntry(index);
+
+                    found += collide(box, index + 1, end);
+
+                    if (column + 1 < columns) {
+
+                        found += collide(box, end, grid.getStart(cell + 2));
+                    }
+
+                    if (row + 1 < rows) {
+
+                        int first = cell + columns - (column > 0 ? 1 : 0);
+                        int last = cell + columns + (column + 1 < columns ? 1 : 0);
+
+                        found += collide(box, grid.getStart(first), grid.getStart(last + 1));
+                    }
+                }
+            }
+        }
+
+        return found;
+    }
+
+    /**
+     * Separate the specified box from each overlapping box in the specified range of the sorted boxes of the grid
+     *
+     * @param box The box
+     * @param from The first index into the sorted boxes (inclusive)
+     * @param to The last index into the sorted boxes (exclusive)
+     *
+     * @return The number of overlapping boxes
+     */
+    private int collide(int box, int from, int to) {
+
+        int found = 0;
+
+        for (int index = from; index < to; index++) {
+
+            if (separate(box, grid.getEntry(index))) {
+
+                found++;
+            }
+        }
+
+        return found;
+    }
+
+    /**
+     * Separate the specified boxes if they overlap. The boxes are pushed apart along the axis of least overlap, and
+     * their velocities along that axis are exchanged if they approach each other, as in an elastic collision of equal
+     * masses.
+     *
+     * @param first The first box
+     * @param second The second box
+     *
+     * @return Whether the boxes overlap
+     */
+    private boolean separate(int first, int second) {
+
+        float dx = x[second] - x[first];
+        float dy = y[second] - y[first];
+        float overlapX = size - Math.abs(dx);
+        float overlapY = size - Math.abs(dy);
+
+        if (overlapX <= 0f || overlapY <= 0f) {
+
+            return false;
+        }
+
+        if (overlapX < overlapY) {
+
+            separate(x, velocityX, width, first, second, dx < 0f ? -overlapX : overlapX);
+
+        } else {
+
+            separate(y, velocityY, height, first, second, dy < 0f ? -overlapY : overlapY);
+        }
+
+        return true;
+    }
+
+    /**
+     * Push the specified boxes apart along one axis, and exchange their velocities along the axis if they approach
+     * each other
+     *
+     * @param positions The positions along the axis
+     * @param velocities The velocities along the axis
+     * @param bound The half extent of the bounds along the axis
+     * @param first The first box
+     * @param second The second box
+     * @param overlap The overlap along the axis, negative if the second box is below or left of the first
+     */
+    private static void separate(float[] positions, float[] velocities, float bound, int first, int second,
+                                 float overlap) {
+
+        float push = overlap / 2f;
+
+        positions[first] = Math.max(-bound, Math.min(bound, positions[first] - push));
+        positions[second] = Math.max(-bound, Math.min(bound, positions[second] + push));
+
+        float velocity = velocities[first];
+
+        if ((velocities[second] - velocity) * overlap < 0f) {
+
+            velocities[first] = velocities[second];
+            velocities[second] = velocity;
+        }
+    }
+
+    /**
+     * Advance one axis of a chunk of boxes by one step, bouncing the boxes off the bounds of the axis
+     *
+     * @param positions The positions along the axis
+     * @param previous The positions along the axis before the step
+     * @param velocities The velocities along the axis
+     * @param bound The half extent of the bounds along the axis
+     * @param seconds The duration of the step (in seconds)
+     * @param from The first box of the chunk (inclusive)
+     * @param to The last box of the chunk (exclusive)
+     */
+    private static void step(float[] positions, float[] previous, float[] velocities, float bound, float seconds,
+                             int from, int to) {
+
+        for (int index = from; index < to; index++) {
+
+            float position = positions[index];
+            float velocity = velocities[index];
+            float next = position + velocity * seconds;
+
+            if (next < -bound || next > bound) {
+
+                next = Math.max(-bound, Math.min(bound, next));
+                velocities[index] = -velocity;
+            }
+
+            previous[index] = position;
+            positions[index] = next;
+        }
+    }
+
+    /**
+     * Interpolate one axis of the translation of a chunk of boxes between the last two steps
+     *
+     * @param positions The positions along the axis
+     * @param previous The positions along the axis before the last step
+     * @param translations The translations along the axis
+     * @param alpha The fraction of a step to interpolate by
+     * @param from The first box of the chunk (inclusive)
+     * @param to The last box of the chunk (exclusive)
+     */
+    private static void interpolate(float[] positions, float[] previous, float[] translations, float alpha,
+                                    int from, int to) {
+
+        for (int index = from; index < to; index++) {
+
+            translations[index] = previous[index] + (positions[index] - previous[index]) * alpha;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.swarm;
+
+import net.tclemens.calcium.demo.simulation.Pool;
+
+import java.util.Random;
+
+/**
+ * This class is responsible for creating and initializing swarms
+ *
+ * @author Tim Clemens
+ */
+public final class SwarmFactory {
+
+    /** The random number generator used to place bodies */
+    private static final Random RANDOM = new Random();
+
+    /** The largest speed of a body along each axis (in units per second) */
+    private static final float SPEED = 2f;
+
+    /** The size of each cell of the grid of a swarm, matching the size of a box */
+    private static final float CELL = 1f;
+
+    /** The largest speed of a colliding body along each axis (in box sizes per second) */
+    private static final float RELATIVE_SPEED = 8f;
+
+    private SwarmFactory() {
+    }
+
+    /**
+     * Create a swarm of boxes at random positions with random velocities within the specified bounds. The boxes are
+     * split into contiguous runs of equal color so that a renderer can group them by material.
+     *
+     * @param count The number of boxes
+     * @param colors The number of colors in the palette of the renderer
+     * @param width The half width of the bounds
+     * @param height The half height of the bounds
+     * @param pool The pool evaluating the step and the interpolation of the swarm
+     *
+     * @return The swarm
+     */
+    public static Swarm createSwarm(int count, int colors, float width, float height, Pool pool) {
+
+        float[] x = createRandom(count, width);
+        float[] y = createRandom(count, height);
+        float[] velocityX = createRandom(count, SPEED);
+        float[] velocityY = createRandom(count, SPEED);
+        Grid grid = new Grid(width, height, CELL, count);
+
+        return new Swarm(x, y, velocityX, velocityY, createPalette(count, colors), width, height, 0f, pool, grid);
+    }
+
+    /**
+     * Create a swarm of boxes of the specified size that bounce off each other as well as the bounds, at random
+     * positions with random velocities. The speed of the boxes scales with their size, so that a box moves only a
+     * small part of its size in each step.
+     *
+     * @param count The number of boxes
+     * @param colors The number of colors in the palette of the renderer
+     * @param width The half width of the bounds
+     * @param height The half height of the bounds
+     * @param size The size of each box
+     * @param pool The pool evaluating the step and the interpolation of the swarm
+     *
+     * @return The swarm
+     */
+    public static Swarm createColliding(int count, int colors, float width, float height, float size, Pool pool) {
+
+        float[] x = createRandom(count, width);
+        float[] y = createRandom(count, height);
+        float[] velocityX = createRandom(count, RELATIVE_SPEED * size);
+        float[] velocityY = createRandom(count, RELATIVE_SPEED * size);
+        Grid grid = new Grid(width, height, size, count);
+
+        return new Swarm(x, y, velocityX, velocityY, createPalette(count, colors), width, height, size, pool, grid);
+    }
+
+    /**
+     * Create the color of each box, split into contiguous runs of equal color
+     *
+     * @param count The number of boxes
+     * @param colors The number of colors in the palette of the renderer
+     *
+     * @return The color of each box
+     */
+    private static int[] createPalette(int count, int colors) {
+
+        int[] palette = new int[count];
+
+        for (int index = 0; index < count; index++) {
+
+            palette[index] = (int) ((long) index * colors / count);
+        }
+
+        return palette;
+    }
+
+    /**
+     * Create an array of random values between the negative and positive specified bound
+     *
+     * @param count The number of values
+     * @param bound The bound
+     *
+     * @return The array
+     */
+    private static float[] createRandom(int count, float bound) {
+
+        float[] values = new float[count];
+
+        for (int index = 0; index < count; index++) {
+
+            values[index] = (RANDOM.nextFloat() * 2f - 1f) * bound;
+        }
+
+        return values;
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.trace;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This class represents a binary trace of frames and state transitions, written to a fixed-size ring of records in a
+ * buffer, normally a memory-mapped file. Writing a record is a handful of absolute puts into the buffer. The layout
+ * of the buffer is:
+ *
+ * <pre>
+ * header   64 bytes   magic, version, record size, capacity, records written, names used
+ * names    32 x 48    length-prefixed UTF-8 state class names, indexed by the state fields of the records
+ * records  capacity x 32
+ *          long time, byte kind, byte state, byte target, byte cause,
+ *          int duration, int interval, int batches, int allocations, int changed
+ * </pre>
+ *
+ * The changed batches of a frame are those that differ from the previous frame of the same state: the batches that
+ * were not drawn in the previous frame, compared by identity, and the batches the state reports as animated by the
+ * engine, which change even when they are the same objects.
+ *
+ * The buffer is plain Java, so <tt>TraceAnalyzer</tt>, in the unit test sources, can read it on a desktop JVM.
+ *
+ * @author Tim Clemens
+ */
+public final class Trace {
+
+    /** The magic number at the start of every trace ("CATR") */
+    static final int MAGIC = 0x43415452;
+
+    /** The version of the layout */
+    static final int VERSION = 2;
+
+    /** The size of the header (in bytes) */
+    static final int HEADER = 64;
+
+    /** The number of state class names */
+    static final int NAMES = 32;
+
+    /** The size of each state class name (in bytes) */
+    static final int NAME = 48;
+
+    /** The size of each record (in bytes) */
+    static final int RECORD = 32;
+
+    /** The offset of the number of records written within the header */
+    static final int COUNT = 16;
+
+    /** The offset of the number of names used within the header */
+    static final int USED = 24;
+
+    /** The kind of a frame record */
+    static final byte FRAME = 1;
+
+    /** The kind of a transition record */
+    static final byte TRANSITION = 2;
+
+    /** The cause of a record not caused by an event */
+    static final byte NONE = 0;
+
+    /** The cause of a transition caused by a touch event */
+    static final byte TOUCH = 1;
+
+    /** The cause of a transition caused by an animation event */
+    static final byte ANIMATION = 2;
+
+    /** The cause of a transition caused by an action event */
+    static final byte ACTION = 3;
+
+    /** The cause of a transition caused by a view event */
+    static final byte VIEW = 4;
+
+    /** The name index of a state whose name did not fit in the names */
+    static final int UNKNOWN = 0xFF;
+
+    /** The character set of the names */
+    static final Charset UTF8 = Charset.forName("UTF-8");
+
+    /** The buffer holding the trace */
+    private final ByteBuffer buffer;
+
+    /** The number of records in the ring */
+    private final int capacity;
+
+    /** The name index of each state class name written so far */
+    private final Map<String, Integer> names = new HashMap<>();
+
+    /** The number of records written */
+    private long count;
+
+    /** The time of the previous frame (in nanoseconds), or zero before the first frame */
+    private long previous;
+
+    /**
+     * @param buffer The buffer holding the trace
+     * @param capacity The number of records in the ring
+     */
+    Trace(ByteBuffer buffer, int capacity) {
+
+        this.buffer = buffer;
+        this.capacity = capacity;
+
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, RECORD);
+        buffer.putInt(12, capacity);
+        buffer.putLong(COUNT, 0L);
+        buffer.putInt(USED, 0);
+    }
+
+    /**
+     * Get the size of a buffer holding a trace with the specified number of records
+     *
+     * @param capacity The number of records in the ring
+     *
+     * @return The size (in bytes)
+     */
+    static int getSize(int capacity) {
+
+        return HEADER + NAMES * NAME + capacity * RECORD;
+    }
+
+    /**
+     * Resume tracing after a pause, so that the time spent paused is not recorded as the interval of the next frame
+     */
+    public synchronized void resume() {
+
+        previous = 0L;
+    }
+
+    /**
+     * Record a frame rendered by the specified state
+     *
+     * @param state The class name of the state
+     * @param duration The duration of the render (in nanoseconds)
+     * @param batches The number of batches in the frame
+     * @param changed The number of batches that differ from the previous frame of the state
+     * @param allocations The number of objects allocated by the render
+     */
+    public synchronized void frame(String state, long duration, int batches, int changed, int allocations) {
+
+        long time = System.nanoTime();
+        long interval = previous == 0L ? 0L : time - previous;
+
+        previous = time;
+
+        write(time, FRAME, getName(state), 0, NONE, duration, interval, batches, changed, allocations);
+    }
+
+    /**
+     * Record a transition from one state to another
+     *
+     * @param state The class name of the state before the transition
+     * @param target The class name of the state after the transition
+     * @param cause The cause of the transition
+     * @param duration The duration of the update producing the transition (in nanoseconds)
+     * @param allocations The number of objects allocated by the update
+     */
+    public synchronized void transition(String state, String target, byte cause, long duration, int allocations) {
+
+        write(System.nanoTime(), TRANSITION, getName(state), getName(target), cause, duration, 0L, 0, 0,
+                allocations);
+    }
+
+    /**
+     * Write a record to the next slot of the ring, then publish it by advancing the number of records written
+     *
+     * @param time The time of the record (in nanoseconds)
+     * @param kind The kind of the record
+     * @param state The name index of the state
+     * @param target The name index of the state after a transition
+     * @param cause The cause of a transition
+     * @param duration The duration of the render or update (in nanoseconds)
+     * @param interval The time since the previous frame (in nanoseconds)
+     * @param batches The number of batches in a frame
+     * @param changed The number of batches that differ from the previous frame of the state
+     * @param allocations The number of objects allocated by the render or update
+     */
+    private void write(long time, byte kind, int state, int target, byte cause, long duration, long interval,
+                       int batches, int changed, int allocations) {
+
+        int offset = HEADER + NAMES * NAME + (int) (count % capacity) * RECORD;
+
+        buffer.putLong(offset, time);
+        buffer.put(offset + 8, kind);
+        buffer.put(offset + 9, (byte) state);
+        buffer.put(offset + 10, (byte) target);
+        buffer.put(offset + 11, cause);
+        buffer.putInt(offset + 12, (int) Math.min(Integer.MAX_VALUE, duration));
+        buffer.putInt(offset + 16, (int) Math.min(Integer.MAX_VALUE, interval));
+        buffer.putInt(offset + 20, batches);
+        buffer.putInt(offset + 24, allocations);
+        buffer.putInt(offset + 28, changed);
+
+        buffer.putLong(COUNT, ++count);
+    }
+
+    /**
+     * Get the name index of the specified state class name, writing the name on first use
+     *
+     * @param name The state class name
+     *
+     * @return The name index
+     */
+    private int getName(String name) {
+
+        Integer index = names.get(name);
+
+        if (index != null) {
+
+            return index;
+        }
+
+        if (names.size() == NAMES) {
+
+            return UNKNOWN;
+        }
+
+        byte[] bytes = name.getBytes(UTF8);
+        int length = Math.min(bytes.length, NAME - 1);
+        int offset = HEADER + names.size() * NAME;
+
+        buffer.put(offset, (byte) length);
+
+        for (int position = 0; position < length; position++) {
+
+            buffer.put(offset + 1 + position, bytes[position]);
+        }
+
+        names.put(name, names.size());
+        buffer.putInt(USED, names.size());
+
+        return names.size() - 1;
+    }
+}
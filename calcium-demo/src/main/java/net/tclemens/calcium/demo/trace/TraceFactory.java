@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.trace;
+
+import net.tclemens.calcium.engine.updates.base.Updatable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Proxy;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * This class is responsible for creating and initializing traces
+ *
+ * @author Tim Clemens
+ */
+public final class TraceFactory {
+
+    private TraceFactory() {
+    }
+
+    /**
+     * Create a trace written to a ring of the specified number of records in a memory-mapped file. The file is
+     * replaced, so a trace should be created once and resumed after every pause. The file stays valid for
+     * <tt>TraceAnalyzer</tt> even if the app is killed.
+     *
+     * @param file The file
+     * @param capacity The number of records in the ring
+     *
+     * @return The trace
+     *
+     * @throws IOException If the file cannot be mapped
+     */
+    public static Trace createTrace(File file, int capacity) throws IOException {
+
+        int size = Trace.getSize(capacity);
+        RandomAccessFile access = new RandomAccessFile(file, "rw");
+
+        try {
+
+            access.setLength(0L);
+            access.setLength(size);
+
+            MappedByteBuffer buffer = access.getChannel().map(FileChannel.MapMode.READ_WRITE, 0L, size);
+
+            return new Trace(buffer, capacity);
+
+        } finally {
+
+            access.close();
+        }
+    }
+
+    /**
+     * Create a stand-in for the specified state that traces its updates and renders, and those of every state it
+     * produces. The stand-in implements the same interfaces as the state.
+     *
+     * @param state The state
+     * @param trace The trace
+     *
+     * @return The stand-in
+     */
+    public static Updatable createTraced(Updatable state, Trace trace) {
+
+        Set<Class<?>> interfaces = new LinkedHashSet<>();
+
+        for (Class<?> type = state.getClass(); type != null; type = type.getSuperclass()) {
+
+            for (Class<?> implemented : type.getInterfaces()) {
+
+                interfaces.add(implemented);
+            }
+        }
+
+        ClassLoader loader = state.getClass().getClassLoader();
+        Class<?>[] types = interfaces.toArray(new Class<?>[interfaces.size()]);
+
+        return (Updatable) Proxy.newProxyInstance(loader, types, new TraceHandler(state, trace));
+    }
+}
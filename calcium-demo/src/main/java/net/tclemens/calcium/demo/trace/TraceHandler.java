@@ -0,0 +1,228 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.trace;
+
+import net.tclemens.calcium.demo.metric.Allocations;
+import net.tclemens.calcium.engine.graphics.batch.Batch;
+import net.tclemens.calcium.engine.updates.base.Updatable;
+import net.tclemens.calcium.engine.updates.event.ActionEvent;
+import net.tclemens.calcium.engine.updates.event.AnimationEvent;
+import net.tclemens.calcium.engine.updates.event.TouchEvent;
+import net.tclemens.calcium.engine.updates.event.ViewEvent;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * This class is responsible for tracing the updates and renders of a state, standing in for the state behind a
+ * proxy with the same interfaces. Each state produced by an update is traced in turn.
+ *
+ * @author Tim Clemens
+ */
+final class TraceHandler implements InvocationHandler {
+
+    /** The traced state */
+    private final Updatable state;
+
+    /** The trace */
+    private final Trace trace;
+
+    /** The class name of the traced state */
+    private final String name;
+
+    /** The batches of the frame rendered most recently by the traced state */
+    private Set<Batch> previous = Collections.newSetFromMap(new IdentityHashMap<Batch, Boolean>());
+
+    /** The batches of the frame being traced, swapped with the previous batches after each frame */
+    private Set<Batch> current = Collections.newSetFromMap(new IdentityHashMap<Batch, Boolean>());
+
+    /**
+     * @param state The traced state
+     * @param trace The trace
+     */
+    TraceHandler(Updatable state, Trace trace) {
+
+        this.state = state;
+        this.trace = trace;
+        this.name = state.getClass().getSimpleName();
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] arguments) throws Throwable {
+
+        String called = method.getName();
+
+        if ("update".equals(called)) {
+
+            return update(proxy, method, arguments);
+        }
+
+        if ("render".equals(called)) {
+
+            return render(method, arguments);
+        }
+
+        if ("equals".equals(called)) {
+
+            return proxy == arguments[0];
+        }
+
+        if ("hashCode".equals(called)) {
+
+            return System.identityHashCode(proxy);
+        }
+
+        return delegate(method, arguments);
+    }
+
+    /**
+     * Update the traced state, tracing a transition if the update produces another state
+     *
+     * @param proxy The proxy standing in for the traced state
+     * @param method The update method
+     * @param arguments The context and event of the update
+     *
+     * @return The proxy if the state is unchanged, otherwise a proxy tracing the next state
+     *
+     * @throws Throwable If the update fails
+     */
+    private Object update(Object proxy, Method method, Object[] arguments) throws Throwable {
+
+        int allocations = Allocations.getThreadCount();
+        long start = System.nanoTime();
+        Updatable next = (Updatable) delegate(method, arguments);
+        long duration = System.nanoTime() - start;
+
+        if (next == state) {
+
+            return proxy;
+        }
+
+        String target = next.getClass().getSimpleName();
+
+        trace.transition(name, target, getCause(arguments[1]), duration, Allocations.getThreadCount() - allocations);
+
+        return TraceFactory.createTraced(next, trace);
+    }
+
+    /**
+     * Render the traced state, tracing the frame. The batches of the frame are compared by identity with the batches
+     * of the previous frame, and a batch changes if it was not in the previous frame or if the state animates it.
+     *
+     * @param method The render method
+     * @param arguments The arguments of the render
+     *
+     * @return The frame
+     *
+     * @throws Throwable If the render fails
+     */
+    private Object render(Method method, Object[] arguments) throws Throwable {
+
+        int allocations = Allocations.getThreadCount();
+        long start = System.nanoTime();
+        Object frame = delegate(method, arguments);
+        long duration = System.nanoTime() - start;
+        int batches = 0;
+        int changed = 0;
+
+        current.clear();
+
+        if (state instanceof Traceable) {
+
+            Traceable traceable = (Traceable) state;
+
+            for (Batch batch : traceable.getDrawn()) {
+
+                current.add(batch);
+                batches++;
+                changed += previous.contains(batch) ? 0 : 1;
+            }
+
+            for (Batch batch : traceable.getAnimated()) {
+
+                changed += previous.contains(batch) && current.contains(batch) ? 1 : 0;
+            }
+        }
+
+        Set<Batch> drawn = current;
+
+        current = previous;
+        previous = drawn;
+
+        trace.frame(name, duration, batches, changed, Allocations.getThreadCount() - allocations);
+
+        return frame;
+    }
+
+    /**
+     * Invoke the specified method on the traced state, rethrowing whatever the method throws
+     *
+     * @param method The method
+     * @param arguments The arguments of the method
+     *
+     * @return The result of the method
+     *
+     * @throws Throwable If the method fails
+     */
+    private Object delegate(Method method, Object[] arguments) throws Throwable {
+
+        try {
+
+            return method.invoke(state, arguments);
+
+        } catch (InvocationTargetException e) {
+
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Get the cause of a transition produced by the specified event
+     *
+     * @param event The event
+     *
+     * @return The cause
+     */
+    private static byte getCause(Object event) {
+
+        if (event instanceof TouchEvent) {
+
+            return Trace.TOUCH;
+        }
+
+        if (event instanceof AnimationEvent) {
+
+            return Trace.ANIMATION;
+        }
+
+        if (event instanceof ActionEvent) {
+
+            return Trace.ACTION;
+        }
+
+        if (event instanceof ViewEvent) {
+
+            return Trace.VIEW;
+        }
+
+        return Trace.NONE;
+    }
+}
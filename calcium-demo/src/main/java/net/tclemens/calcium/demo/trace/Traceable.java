@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.trace;
+
+import net.tclemens.calcium.engine.graphics.batch.Batch;
+
+import java.util.Collection;
+
+/**
+ * This interface represents a state that reports what it draws to a trace
+ *
+ * @author Tim Clemens
+ */
+public interface Traceable {
+
+    /**
+     * Get the batches of the most recent frame, each drawn with one draw call
+     *
+     * @return The batches
+     */
+    Collection<Batch> getDrawn();
+
+    /**
+     * Get the batches of the most recent frame whose models the engine animates. They change from one frame to the
+     * next even when they are the same objects, which only the state can tell.
+     *
+     * @return The animated batches
+     */
+    Collection<Batch> getAnimated();
+}
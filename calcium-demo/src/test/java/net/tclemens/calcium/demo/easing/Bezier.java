@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.easing;
+
+/**
+ * This class represents a cubic Bezier easing curve from (0, 0) to (1, 1), as used by CSS transitions. The curve is
+ * evaluated analytically, by solving for the parameter of the progress with Newton's method and bisection.
+ *
+ * @author Tim Clemens
+ */
+final class Bezier implements Curve {
+
+    /** The greatest number of Newton iterations before falling back to bisection */
+    private static final int ITERATIONS = 8;
+
+    /** The greatest error of the solved progress */
+    private static final float EPSILON = 1e-6f;
+
+    /** The cubic coefficient of the horizontal polynomial */
+    private final float ax;
+
+    /** The quadratic coefficient of the horizontal polynomial */
+    private final float bx;
+
+    /** The linear coefficient of the horizontal polynomial */
+    private final float cx;
+
+    /** The cubic coefficient of the vertical polynomial */
+    private final float ay;
+
+    /** The quadratic coefficient of the vertical polynomial */
+    private final float by;
+
+    /** The linear coefficient of the vertical polynomial */
+    private final float cy;
+
+    /**
+     * @param x1 The horizontal coordinate of the first control point, from zero to one
+     * @param y1 The vertical coordinate of the first control point
+     * @param x2 The horizontal coordinate of the second control point, from zero to one
+     * @param y2 The vertical coordinate of the second control point
+     */
+    Bezier(float x1, float y1, float x2, float y2) {
+
+        this.cx = 3f * x1;
+        this.bx = 3f * (x2 - x1) - cx;
+        this.ax = 1f - cx - bx;
+        this.cy = 3f * y1;
+        this.by = 3f * (y2 - y1) - cy;
+        this.ay = 1f - cy - by;
+    }
+
+    @Override
+    public float evaluate(float progress) {
+
+        float t = solve(progress);
+
+        return ((ay * t + by) * t + cy) * t;
+    }
+
+    /**
+     * Solve for the parameter of the curve at the specified horizontal progress
+     *
+     * @param x The horizontal progress
+     *
+     * @return The parameter
+     */
+    private float solve(float x) {
+
+        float t = x;
+
+        for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+
+            float error = ((ax * t + bx) * t + cx) * t - x;
+
+            if (Math.abs(error) < EPSILON) {
+
+                return t;
+            }
+
+            float slope = (3f * ax * t + 2f * bx) * t + cx;
+
+            if (Math.abs(slope) < EPSILON) {
+
+                break;
+            }
+
+            t -= error / slope;
+        }
+
+        float low = 0f;
+        float high = 1f;
+
+        t = Math.min(Math.max(x, low), high);
+
+        while (high - low > EPSILON) {
+
+            float value = ((ax * t + bx) * t + cx) * t;
+
+            if (value < x) {
+
+                low = t;
+
+            } else {
+
+                high = t;
+            }
+
+            t = (low + high) / 2f;
+        }
+
+        return t;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.easing;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * This class tests the analytic evaluation of a {@link Bezier} curve against the points of the curve computed from
+ * its parameter
+ *
+ * @author Tim Clemens
+ */
+public final class BezierTest {
+
+    /** The number of parameters sampled along each curve */
+    private static final int SAMPLES = 1000;
+
+    /** The tolerance of an evaluated progress */
+    private static final float DELTA = 1e-3f;
+
+    /**
+     * The ease-in-out curve starts at zero, ends at one, and is symmetric about its midpoint
+     */
+    @Test
+    public void testEaseInOut() {
+
+        Curve curve = EasingFactory.createEaseInOut();
+
+        assertEquals(0f, curve.evaluate(0f), DELTA);
+        assertEquals(0.5f, curve.evaluate(0.5f), DELTA);
+        assertEquals(1f, curve.evaluate(1f), DELTA);
+
+        for (int index = 0; index <= SAMPLES; index++) {
+
+            float progress = (float) index / SAMPLES;
+
+            assertEquals(1f, curve.evaluate(progress) + curve.evaluate(1f - progress), DELTA);
+        }
+    }
+
+    /**
+     * Control points on the diagonal give the identity
+     */
+    @Test
+    public void testLinear() {
+
+        Curve curve = EasingFactory.createCubicBezier(1f / 3f, 1f / 3f, 2f / 3f, 2f / 3f);
+
+        for (int index = 0; index <= SAMPLES; index++) {
+
+            float progress = (float) index / SAMPLES;
+
+            assertEquals(progress, curve.evaluate(progress), DELTA);
+        }
+    }
+
+    /**
+     * Every curve passes through its points computed from the parameter, including a curve flat in the middle where
+     * Newton's method falls back to bisection
+     */
+    @Test
+    public void testMatchesParametric() {
+
+        assertMatchesParametric(0.42f, 0f, 0.58f, 1f);
+        assertMatchesParametric(0.25f, 0.1f, 0.25f, 1f);
+        assertMatchesParametric(0.68f, -0.55f, 0.27f, 1.55f);
+        assertMatchesParametric(0f, 1f, 1f, 0f);
+    }
+
+    /**
+     * Assert that the curve with the specified control points evaluates to the vertical coordinate of each point
+     * computed from a sampled parameter at the horizontal coordinate of the point
+     *
+     * @param x1 The horizontal coordinate of the first control point
+     * @param y1 The vertical coordinate of the first control point
+     * @param x2 The horizontal coordinate of the second control point
+     * @param y2 The vertical coordinate of the second control point
+     */
+    private static void assertMatchesParametric(float x1, float y1, float x2, float y2) {
+
+        Curve curve = EasingFactory.createCubicBezier(x1, y1, x2, y2);
+
+        for (int index = 0; index <= SAMPLES; index++) {
+
+            float t = (float) index / SAMPLES;
+            float x = getCoordinate(x1, x2, t);
+            float y = getCoordinate(y1, y2, t);
+
+            assertEquals("Parameter " + t, y, curve.evaluate(x), DELTA);
+        }
+    }
+
+    /**
+     * Get one coordinate of a cubic Bezier curve from zero to one at the specified parameter
+     *
+     * @param first The coordinate of the first control point
+     * @param second The coordinate of the second control point
+     * @param t The parameter
+     *
+     * @return The coordinate
+     */
+    private static float getCoordinate(float first, float second, float t) {
+
+        float u = 1f - t;
+
+        return 3f * u * u * t * first + 3f * u * t * t * second + t * t * t;
+    }
+}
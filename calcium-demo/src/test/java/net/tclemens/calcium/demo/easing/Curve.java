@@ -0,0 +1,34 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.easing;
+
+/**
+ * This interface represents an easing curve, mapping the progress of an animation to the progress of its value
+ *
+ * @author Tim Clemens
+ */
+public interface Curve {
+
+    /**
+     * Evaluate the curve at the specified progress
+     *
+     * @param progress The progress of the animation, from zero to one
+     *
+     * @return The progress of the value, zero at the start and one at the end
+     */
+    float evaluate(float progress);
+}
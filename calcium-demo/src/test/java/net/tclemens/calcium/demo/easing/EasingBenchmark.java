@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.easing;
+
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * This class is a plain Java benchmark comparing the analytic easing curves with tables sampled from them, for
+ * thousands of animations evaluated once per frame, and measuring the greatest error of each table. It has no Android
+ * dependencies and lives with the unit tests, so it is not part of the app, and runs on a desktop JVM against the
+ * compiled classes:
+ *
+ * <pre>
+ * ./gradlew :calcium-demo:compileDebugUnitTestJavaWithJavac
+ * java -cp calcium-demo/build/intermediates/classes/debug:calcium-demo/build/intermediates/classes/test/debug \
+ *         net.tclemens.calcium.demo.easing.EasingBenchmark
+ * </pre>
+ *
+ * @author Tim Clemens
+ */
+public final class EasingBenchmark {
+
+    /** The numbers of simultaneous animations measured */
+    private static final int[] COUNTS = {1000, 10000, 100000};
+
+    /** The number of animations times frames measured for each count, keeping the duration of each count similar */
+    private static final long WORK = 100000000L;
+
+    /** The number of samples in each table */
+    private static final int SIZE = 256;
+
+    /** The number of evenly spaced progress values the error of each table is measured at */
+    private static final int CHECKS = 100000;
+
+    /** The progress of the animations between frames, so an animation lasts two seconds at 60 Hz */
+    private static final float FRAME = 1f / 120f;
+
+    private EasingBenchmark() {
+    }
+
+    /**
+     * Run the benchmark and print one line per measurement
+     *
+     * @param arguments The command line arguments (ignored)
+     */
+    public static void main(String[] arguments) {
+
+        String[] names = {"ease-in-out", "spring"};
+        Curve[] curves = {EasingFactory.createEaseInOut(), EasingFactory.createSpring(2f, 0.3f)};
+
+        for (int index = 0; index < curves.length; index++) {
+
+            Curve analytic = curves[index];
+            Table table = EasingFactory.createTable(analytic, SIZE);
+
+            System.out.println(String.format(Locale.US, "curve=%s samples=%d error=%.6f",
+                    names[index], SIZE, measureError(analytic, table)));
+
+            for (int count : COUNTS) {
+
+                int frames = (int) (WORK / count);
+                float[] starts = createStarts(count);
+
+                measure(analytic, starts, frames);
+                measure(table, starts, frames);
+
+                double slow = (double) measure(analytic, starts, frames) / frames / count;
+                double fast = (double) measure(table, starts, frames) / frames / count;
+
+                System.out.println(String.format(Locale.US,
+                        "curve=%s animations=%d analytic=%.2fns/animation table=%.2fns/animation speedup=%.2fx",
+                        names[index], count, slow, fast, slow / fast));
+            }
+        }
+    }
+
+    /**
+     * Create the specified number of animations, each starting at its own random progress
+     *
+     * @param count The number of animations
+     *
+     * @return The starting progress of each animation
+     */
+    private static float[] createStarts(int count) {
+
+        Random random = new Random(count);
+        float[] starts = new float[count];
+
+        for (int index = 0; index < count; index++) {
+
+            starts[index] = random.nextFloat();
+        }
+
+        return starts;
+    }
+
+    /**
+     * Measure the specified number of frames, each evaluating the specified curve once per animation. The values are
+     * summed so that the evaluations cannot be eliminated.
+     *
+     * @param curve The curve
+     * @param starts The starting progress of each animation
+     * @param frames The number of frames
+     *
+     * @return The duration (in nanoseconds)
+     */
+    private static long measure(Curve curve, float[] starts, int frames) {
+
+        float sum = 0f;
+        long start = System.nanoTime();
+
+        for (int frame = 0; frame < frames; frame++) {
+
+            float offset = frame * FRAME;
+
+            for (float begin : starts) {
+
+                float progress = begin + offset;
+
+                sum += curve.evaluate(progress - (int) progress);
+            }
+        }
+
+        long duration = System.nanoTime() - start;
+
+        if (sum == Float.MIN_VALUE) {
+
+            System.out.println(sum);
+        }
+
+        return duration;
+    }
+
+    /**
+     * Measure the greatest difference between the specified curve and table
+     *
+     * @param curve The curve
+     * @param table The table sampled from the curve
+     *
+     * @return The greatest difference
+     */
+    private static float measureError(Curve curve, Table table) {
+
+        float error = 0f;
+
+        for (int index = 0; index <= CHECKS; index++) {
+
+            float progress = (float) index / CHECKS;
+
+            error = Math.max(error, Math.abs(curve.evaluate(progress) - table.evaluate(progress)));
+        }
+
+        return error;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.easing;
+
+/**
+ * This class is responsible for creating and initializing easing curves. The curves live with the unit tests rather
+ * than in the app, as a measured prototype for <tt>InterpolationFactory</tt> in calcium-core, which the demo cannot
+ * extend and whose animations stay linear.
+ *
+ * @author Tim Clemens
+ */
+public final class EasingFactory {
+
+    private EasingFactory() {
+    }
+
+    /**
+     * Create the standard ease-in-out curve, slow at both ends
+     *
+     * @return The curve
+     */
+    public static Curve createEaseInOut() {
+
+        return createCubicBezier(0.42f, 0f, 0.58f, 1f);
+    }
+
+    /**
+     * Create a cubic Bezier curve from (0, 0) to (1, 1) with the specified control points
+     *
+     * @param x1 The horizontal coordinate of the first control point, from zero to one
+     * @param y1 The vertical coordinate of the first control point
+     * @param x2 The horizontal coordinate of the second control point, from zero to one
+     * @param y2 The vertical coordinate of the second control point
+     *
+     * @return The curve
+     */
+    public static Curve createCubicBezier(float x1, float y1, float x2, float y2) {
+
+        return new Bezier(x1, y1, x2, y2);
+    }
+
+    /**
+     * Create the curve of an underdamped spring, overshooting one and settling back to it
+     *
+     * @param oscillations The number of undamped oscillations over the animation
+     * @param damping The damping ratio, greater than zero and less than one
+     *
+     * @return The curve
+     *
+     * @throws IllegalArgumentException If the damping ratio is out of range
+     */
+    public static Curve createSpring(float oscillations, float damping) {
+
+        if (!(damping > 0f && damping < 1f)) {
+
+            throw new IllegalArgumentException("Damping out of range: " + damping);
+        }
+
+        return new Spring(oscillations, damping);
+    }
+
+    /**
+     * Create a table of the specified number of evenly spaced samples of the specified curve. The table is shared
+     * rather than the curve, so the cost of the curve is paid once here instead of on every evaluation.
+     *
+     * @param curve The curve
+     * @param size The number of samples, at least two
+     *
+     * @return The table
+     *
+     * @throws IllegalArgumentException If there are fewer than two samples
+     */
+    public static Table createTable(Curve curve, int size) {
+
+        if (size < 2) {
+
+            throw new IllegalArgumentException("Too few samples: " + size);
+        }
+
+        float[] samples = new float[size];
+
+        for (int index = 0; index < size; index++) {
+
+            samples[index] = curve.evaluate((float) index / (size - 1));
+        }
+
+        return new Table(samples);
+    }
+}
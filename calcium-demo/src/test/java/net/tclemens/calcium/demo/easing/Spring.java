@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.easing;
+
+/**
+ * This class represents the easing curve of an underdamped spring released at zero and settling at one. The curve is
+ * evaluated analytically, with an exponential and two trigonometric functions per evaluation. The spring has not fully
+ * settled by the end of the animation, so its remaining displacement is removed linearly over the animation, and the
+ * curve ends exactly at one instead of snapping there.
+ *
+ * @author Tim Clemens
+ */
+final class Spring implements Curve {
+
+    /** The decay rate of the oscillation (per animation) */
+    private final double decay;
+
+    /** The angular frequency of the damped oscillation (per animation) */
+    private final double frequency;
+
+    /** The ratio of the decay rate to the angular frequency */
+    private final double ratio;
+
+    /** The displacement of the spring from one at the end of the animation */
+    private final double remainder;
+
+    /**
+     * @param oscillations The number of undamped oscillations over the animation
+     * @param damping The damping ratio, greater than zero and less than one
+     */
+    Spring(float oscillations, float damping) {
+
+        double natural = 2d * Math.PI * oscillations;
+
+        this.decay = damping * natural;
+        this.frequency = natural * Math.sqrt(1d - damping * damping);
+        this.ratio = decay / frequency;
+        this.remainder = displace(1d);
+    }
+
+    @Override
+    public float evaluate(float progress) {
+
+        return (float) (1d - displace(progress) + remainder * progress);
+    }
+
+    /**
+     * Get the displacement of the spring from one at the specified progress
+     *
+     * @param progress The progress of the animation
+     *
+     * @return The displacement
+     */
+    private double displace(double progress) {
+
+        double envelope = Math.exp(-decay * progress);
+        double angle = frequency * progress;
+
+        return envelope * (Math.cos(angle) + ratio * Math.sin(angle));
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.easing;
+
+/**
+ * This class represents an easing curve sampled at evenly spaced progress values, evaluated by linear sampling between
+ * the two nearest samples. A table holds no state besides its samples, so one table can be shared by any number of
+ * animations, and evaluating it neither allocates nor calls into the math library.
+ *
+ * @author Tim Clemens
+ */
+public final class Table implements Curve {
+
+    /** The samples of the curve, the first at progress zero and the last at progress one */
+    private final float[] samples;
+
+    /** The number of intervals between the samples */
+    private final int intervals;
+
+    /**
+     * @param samples The samples of the curve, the first at progress zero and the last at progress one
+     */
+    Table(float[] samples) {
+
+        this.samples = samples;
+        this.intervals = samples.length - 1;
+    }
+
+    @Override
+    public float evaluate(float progress) {
+
+        if (progress <= 0f) {
+
+            return samples[0];
+        }
+
+        if (progress >= 1f) {
+
+            return samples[intervals];
+        }
+
+        float position = progress * intervals;
+        int index = (int) position;
+        float fraction = position - index;
+
+        return samples[index] + (samples[index + 1] - samples[index]) * fraction;
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.easing;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * This class tests the sampling of a curve into a {@link Table}, and the ends of the curves sampled
+ *
+ * @author Tim Clemens
+ */
+public final class TableTest {
+
+    /** The number of samples of a table, as used by the moving states */
+    private static final int SIZE = 256;
+
+    /** The number of progress values tested along each table */
+    private static final int STEPS = 1000;
+
+    /** The tolerance of an evaluated progress */
+    private static final float DELTA = 1e-3f;
+
+    /**
+     * A table of a straight line reproduces the line exactly, and holds its ends outside of zero and one
+     */
+    @Test
+    public void testLinear() {
+
+        Table table = EasingFactory.createTable(new Curve() {
+
+            @Override
+            public float evaluate(float progress) {
+
+                return progress;
+            }
+        }, 2);
+
+        assertEquals(0.25f, table.evaluate(0.25f), 1e-6f);
+        assertEquals(0.75f, table.evaluate(0.75f), 1e-6f);
+        assertEquals(0f, table.evaluate(-1f), 0f);
+        assertEquals(1f, table.evaluate(2f), 0f);
+    }
+
+    /**
+     * A table hits every sample of its curve exactly and stays close to the curve in between
+     */
+    @Test
+    public void testMatchesCurve() {
+
+        assertMatchesCurve(EasingFactory.createEaseInOut());
+        assertMatchesCurve(EasingFactory.createSpring(2f, 0.3f));
+    }
+
+    /**
+     * A spring starts at zero and ends exactly at one, so a moving state finishes where it should
+     */
+    @Test
+    public void testSpringEnds() {
+
+        Curve spring = EasingFactory.createSpring(2f, 0.3f);
+
+        assertEquals(0f, spring.evaluate(0f), 1e-6f);
+        assertEquals(1f, spring.evaluate(1f), 1e-6f);
+
+        Table table = EasingFactory.createTable(spring, SIZE);
+
+        assertEquals(0f, table.evaluate(0f), 1e-6f);
+        assertEquals(1f, table.evaluate(1f), 1e-6f);
+    }
+
+    /**
+     * A table needs at least two samples
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooFewSamples() {
+
+        EasingFactory.createTable(EasingFactory.createEaseInOut(), 1);
+    }
+
+    /**
+     * A spring needs a damping ratio between zero and one
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testDampingOutOfRange() {
+
+        EasingFactory.createSpring(2f, 1f);
+    }
+
+    /**
+     * Assert that a table of the specified curve matches the curve at each sample and close to it elsewhere
+     *
+     * @param curve The curve
+     */
+    private static void assertMatchesCurve(Curve curve) {
+
+        Table table = EasingFactory.createTable(curve, SIZE);
+
+        for (int index = 0; index < SIZE; index++) {
+
+            float progress = (float) index / (SIZE - 1);
+
+            assertEquals(curve.evaluate(progress), table.evaluate(progress), 1e-5f);
+        }
+
+        for (int step = 0; step <= STEPS; step++) {
+
+            float progress = (float) step / STEPS;
+
+            assertEquals("Progress " + progress, curve.evaluate(progress), table.evaluate(progress), DELTA);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.metric;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * This class tests the nearest-rank percentiles and the bounded window of a {@link Histogram}
+ *
+ * @author Tim Clemens
+ */
+public final class HistogramTest {
+
+    /** The seed of the random number generator shuffling the samples */
+    private static final long SEED = 42L;
+
+    /**
+     * Percentiles of the samples one to a hundred, recorded in random order, are their nearest ranks
+     */
+    @Test
+    public void testPercentiles() {
+
+        Histogram histogram = MetricFactory.createHistogram(100);
+        List<Long> samples = new ArrayList<>();
+
+        for (long sample = 1L; sample <= 100L; sample++) {
+
+            samples.add(sample);
+        }
+
+        Collections.shuffle(samples, new Random(SEED));
+
+        for (long sample : samples) {
+
+            histogram.record(sample);
+        }
+
+        assertEquals(1L, histogram.getPercentile(0d));
+        assertEquals(1L, histogram.getPercentile(1d));
+        assertEquals(50L, histogram.getPercentile(50d));
+        assertEquals(51L, histogram.getPercentile(50.5d));
+        assertEquals(90L, histogram.getPercentile(90d));
+        assertEquals(99L, histogram.getPercentile(99d));
+        assertEquals(100L, histogram.getPercentile(100d));
+        assertEquals(50L, histogram.getMean());
+    }
+
+    /**
+     * Percentiles of too few samples round up to the next sample
+     */
+    @Test
+    public void testFewSamples() {
+
+        Histogram histogram = MetricFactory.createHistogram(100);
+
+        histogram.record(30L);
+        histogram.record(10L);
+        histogram.record(20L);
+
+        assertEquals(10L, histogram.getPercentile(33d));
+        assertEquals(20L, histogram.getPercentile(50d));
+        assertEquals(30L, histogram.getPercentile(99d));
+    }
+
+    /**
+     * Once full, the histogram retains only the most recent samples but counts every sample
+     */
+    @Test
+    public void testWindow() {
+
+        Histogram histogram = MetricFactory.createHistogram(10);
+
+        for (long sample = 1L; sample <= 25L; sample++) {
+
+            histogram.record(sample);
+        }
+
+        assertEquals(25L, histogram.getCount());
+        assertEquals(16L, histogram.getPercentile(0d));
+        assertEquals(25L, histogram.getPercentile(100d));
+        assertEquals(20L, histogram.getMean());
+    }
+
+    /**
+     * An empty or cleared histogram reports zero
+     */
+    @Test
+    public void testEmpty() {
+
+        Histogram histogram = MetricFactory.createHistogram(10);
+
+        assertEquals(0L, histogram.getPercentile(50d));
+        assertEquals(0L, histogram.getMean());
+
+        histogram.record(5L);
+        histogram.clear();
+
+        assertEquals(0L, histogram.getCount());
+        assertEquals(0L, histogram.getPercentile(50d));
+    }
+}
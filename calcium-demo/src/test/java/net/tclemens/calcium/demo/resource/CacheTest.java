@@ -0,0 +1,181 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.resource;
+
+import android.content.ComponentCallbacks2;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * This class tests the least recently used eviction of a {@link Cache} under its budget and in response to memory
+ * trim levels
+ *
+ * @author Tim Clemens
+ */
+public final class CacheTest {
+
+    /** The budget of the cache (in bytes) */
+    private static final long BUDGET = 400L;
+
+    /** The estimated size of each resource (in bytes) */
+    private static final long SIZE = 100L;
+
+    /** The cache under test */
+    private Cache<String, Object> cache;
+
+    /**
+     * Create an empty cache
+     */
+    @Before
+    public void setUp() {
+
+        cache = ResourceFactory.createCache(BUDGET);
+    }
+
+    /**
+     * Resources within the budget are all kept and found
+     */
+    @Test
+    public void testWithinBudget() {
+
+        Object resource = new Object();
+
+        cache.put("a", resource, SIZE);
+        fill("b", "c", "d");
+
+        assertSame(resource, cache.get("a"));
+        assertNull(cache.get("e"));
+        assertEquals(4, cache.getCount());
+        assertEquals(BUDGET, cache.getCached());
+        assertEquals(0L, cache.getEvicted());
+        assertEquals(1L, cache.getHits());
+        assertEquals(1L, cache.getMisses());
+    }
+
+    /**
+     * Going over the budget evicts the least recently used resource, where a get counts as a use
+     */
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+
+        fill("a", "b", "c", "d");
+
+        cache.get("a");
+        cache.put("e", new Object(), SIZE);
+
+        assertNull(cache.get("b"));
+        assertEquals(4, cache.getCount());
+        assertEquals(BUDGET, cache.getCached());
+        assertEquals(SIZE, cache.getEvicted());
+        assertContains("a", "c", "d", "e");
+    }
+
+    /**
+     * Replacing a resource counts only its new size
+     */
+    @Test
+    public void testReplaceKeepsSize() {
+
+        fill("a", "b");
+
+        cache.put("a", new Object(), 2L * SIZE);
+
+        assertEquals(2, cache.getCount());
+        assertEquals(3L * SIZE, cache.getCached());
+        assertEquals(0L, cache.getEvicted());
+    }
+
+    /**
+     * A moderate trim shrinks the cache to three quarters of its budget, a low trim to half of it, and a critical
+     * trim empties it
+     */
+    @Test
+    public void testTrimLevels() {
+
+        fill("a", "b", "c", "d");
+
+        cache.trim(ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE);
+
+        assertEquals(3L * SIZE, cache.getCached());
+        assertNull(cache.get("a"));
+
+        cache.trim(ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW);
+
+        assertEquals(2L * SIZE, cache.getCached());
+        assertContains("c", "d");
+
+        cache.trim(ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL);
+
+        assertEquals(0, cache.getCount());
+        assertEquals(0L, cache.getCached());
+        assertEquals(4L * SIZE, cache.getEvicted());
+    }
+
+    /**
+     * Hiding the app empties the cache, and clearing it does too
+     */
+    @Test
+    public void testHiddenAndClearEmpty() {
+
+        fill("a", "b");
+
+        cache.trim(ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN);
+
+        assertEquals(0, cache.getCount());
+
+        fill("c");
+
+        cache.clear();
+
+        assertEquals(0, cache.getCount());
+        assertEquals(3L * SIZE, cache.getEvicted());
+    }
+
+    /**
+     * Cache a new resource of the standard size under each of the specified keys, in order
+     *
+     * @param keys The keys
+     */
+    private void fill(String... keys) {
+
+        for (String key : keys) {
+
+            cache.put(key, new Object(), SIZE);
+        }
+    }
+
+    /**
+     * Assert that the cache holds exactly the resources with the specified keys
+     *
+     * @param keys The keys
+     */
+    private void assertContains(String... keys) {
+
+        assertEquals(keys.length, cache.getCount());
+
+        for (String key : keys) {
+
+            assertNotNull("Missing " + key, cache.get(key));
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.resource;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This class tests the accounting of the {@link Ledger} by kind and by owner, as resources are tracked and then
+ * collected
+ *
+ * @author Tim Clemens
+ */
+public final class LedgerTest {
+
+    /** The estimated size of each resource (in bytes) */
+    private static final long SIZE = 2048L;
+
+    /** The longest time to wait for the collection of unreachable resources (in milliseconds) */
+    private static final long TIMEOUT = 10000L;
+
+    /** A resource kept reachable for the whole of a test */
+    private Object kept;
+
+    /**
+     * Start from an empty ledger
+     */
+    @Before
+    public void setUp() {
+
+        Ledger.reset();
+    }
+
+    /**
+     * Leave an empty ledger behind
+     */
+    @After
+    public void tearDown() {
+
+        Ledger.reset();
+    }
+
+    /**
+     * Tracked resources count by kind and by owner while they are reachable
+     */
+    @Test
+    public void testTrack() {
+
+        Object first = new Object();
+        Object second = new Object();
+
+        Ledger.track("mesh", LedgerTest.class, first, SIZE);
+        Ledger.track("texture", LedgerTest.class, second, 2L * SIZE);
+
+        assertUsage(Ledger.getType("mesh"), 1L, SIZE);
+        assertUsage(Ledger.getType("texture"), 1L, 2L * SIZE);
+        assertUsage(Ledger.getOwner(LedgerTest.class), 2L, 3L * SIZE);
+        assertUsage(Ledger.getOwner(Owner.class), 0L, 0L);
+        assertTrue(Ledger.toReport().contains("owner.LedgerTest count=2 size=6KB"));
+    }
+
+    /**
+     * Resources are released once they are collected, while the peak and the number tracked remain
+     */
+    @Test
+    public void testRelease() throws InterruptedException {
+
+        kept = new Object();
+
+        Ledger.track("mesh", Owner.class, kept, SIZE);
+        Ledger.track("mesh", Owner.class, new Object(), SIZE);
+
+        Usage usage = Ledger.getOwner(Owner.class);
+        long deadline = System.currentTimeMillis() + TIMEOUT;
+
+        while (Ledger.getOwner(Owner.class).getCount() > 1L && System.currentTimeMillis() < deadline) {
+
+            System.gc();
+            Thread.sleep(10L);
+        }
+
+        assertUsage(usage, 1L, SIZE);
+        assertEquals(2L, usage.getPeakCount());
+        assertEquals(2L * SIZE, usage.getPeakSize());
+        assertEquals(2L, usage.getTracked());
+        assertUsage(Ledger.getType("mesh"), 1L, SIZE);
+    }
+
+    /**
+     * Resetting forgets every usage
+     */
+    @Test
+    public void testReset() {
+
+        Ledger.track("mesh", Owner.class, new Object(), SIZE);
+        Ledger.reset();
+
+        assertUsage(Ledger.getOwner(Owner.class), 0L, 0L);
+        assertEquals(0L, Ledger.getType("mesh").getTracked());
+    }
+
+    /**
+     * Assert the number and estimated size of the live resources of the specified usage
+     *
+     * @param usage The usage
+     * @param count The expected number of live resources
+     * @param size The expected estimated size of the live resources (in bytes)
+     */
+    private static void assertUsage(Usage usage, long count, long size) {
+
+        assertEquals(count, usage.getCount());
+        assertEquals(size, usage.getSize());
+    }
+
+    /**
+     * This class stands in for the state class owning resources
+     */
+    private static final class Owner {
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.simulation;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * This class tests the steps taken by a fixed-step {@link Simulation} and the fraction of a step it returns to
+ * interpolate by
+ *
+ * @author Tim Clemens
+ */
+public final class SimulationTest {
+
+    /** The number of steps per second */
+    private static final int RATE = 100;
+
+    /** The duration of each step (in nanoseconds) */
+    private static final long STEP = 1000000000L / RATE;
+
+    /** The time of the first advance (in nanoseconds) */
+    private static final long START = 5000000000L;
+
+    /** The tolerance of a fraction of a step */
+    private static final float DELTA = 1e-4f;
+
+    /** The object counting the steps taken */
+    private Counted counted;
+
+    /** The simulation under test */
+    private Simulation simulation;
+
+    /**
+     * Create a simulation of a counted object, advanced once to start its clock
+     */
+    @Before
+    public void setUp() {
+
+        counted = new Counted();
+        simulation = SimulationFactory.createFixed(counted, RATE);
+
+        assertEquals(0f, simulation.advance(START), DELTA);
+    }
+
+    /**
+     * The first advance only starts the clock
+     */
+    @Test
+    public void testFirstAdvanceTakesNoStep() {
+
+        assertEquals(0, counted.steps);
+        assertEquals(0L, simulation.getSteps());
+    }
+
+    /**
+     * An advance takes every whole step elapsed and returns the remainder as the fraction of a step
+     */
+    @Test
+    public void testAdvanceTakesWholeSteps() {
+
+        float alpha = simulation.advance(START + 5L * STEP / 2L);
+
+        assertEquals(2, counted.steps);
+        assertEquals(2L, simulation.getSteps());
+        assertEquals(0.5f, alpha, DELTA);
+        assertEquals(1f / RATE, counted.seconds, DELTA);
+    }
+
+    /**
+     * Time too short for a step carries over to the next advance
+     */
+    @Test
+    public void testRemainderCarriesOver() {
+
+        assertEquals(0.6f, simulation.advance(START + 6L * STEP / 10L), DELTA);
+        assertEquals(0, counted.steps);
+        assertEquals(0.2f, simulation.advance(START + 12L * STEP / 10L), DELTA);
+        assertEquals(1, counted.steps);
+    }
+
+    /**
+     * A long stall takes a bounded number of steps and drops the rest of the elapsed time, keeping the fraction
+     */
+    @Test
+    public void testStallIsBounded() {
+
+        float alpha = simulation.advance(START + 100L * STEP + STEP / 4L);
+
+        assertEquals(8, counted.steps);
+        assertEquals(0.25f, alpha, DELTA);
+
+        assertEquals(0.5f, simulation.advance(START + 100L * STEP + STEP / 2L), DELTA);
+        assertEquals(8, counted.steps);
+    }
+
+    /**
+     * A rate below one step per second is rejected
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroRateRejected() {
+
+        SimulationFactory.createFixed(counted, 0);
+    }
+
+    /**
+     * This class represents a simulated object counting its steps
+     */
+    private static final class Counted implements Simulated {
+
+        /** The number of steps taken */
+        private int steps;
+
+        /** The duration of the last step (in seconds) */
+        private float seconds;
+
+        @Override
+        public void step(float seconds) {
+
+            this.steps++;
+            this.seconds = seconds;
+        }
+    }
+}
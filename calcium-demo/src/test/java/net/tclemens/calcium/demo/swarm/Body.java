@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.swarm;
+
+/**
+ * This class represents a single box moving at a constant velocity within fixed bounds, stored as its own object.
+ * This is the layout that {@link Swarm} replaces, kept as the baseline of {@link SwarmBenchmark}.
+ *
+ * @author Tim Clemens
+ */
+public final class Body {
+
+    /** The <tt>x</tt> position after the last step */
+    private float x;
+
+    /** The <tt>y</tt> position after the last step */
+    private float y;
+
+    /** The <tt>x</tt> position after the step before the last step */
+    private float previousX;
+
+    /** The <tt>y</tt> position after the step before the last step */
+    private float previousY;
+
+    /** The <tt>x</tt> velocity (in units per second) */
+    private float velocityX;
+
+    /** The <tt>y</tt> velocity (in units per second) */
+    private float velocityY;
+
+    /**
+     * @param x The initial <tt>x</tt> position
+     * @param y The initial <tt>y</tt> position
+     * @param velocityX The <tt>x</tt> velocity (in units per second)
+     * @param velocityY The <tt>y</tt> velocity (in units per second)
+     */
+    Body(float x, float y, float velocityX, float velocityY) {
+
+        this.x = x;
+        this.y = y;
+        this.previousX = x;
+        this.previousY = y;
+        this.velocityX = velocityX;
+        this.velocityY = velocityY;
+    }
+
+    /**
+     * Get the <tt>x</tt> position interpolated between the last two steps
+     *
+     * @param alpha The fraction of a step to interpolate by
+     *
+     * @return The <tt>x</tt> position
+     */
+    public float getX(float alpha) {
+
+        return previousX + (x - previousX) * alpha;
+    }
+
+    /**
+     * Get the <tt>y</tt> position interpolated between the last two steps
+     *
+     * @param alpha The fraction of a step to interpolate by
+     *
+     * @return The <tt>y</tt> position
+     */
+    public float getY(float alpha) {
+
+        return previousY + (y - previousY) * alpha;
+    }
+
+    /**
+     * Advance the body by one step, bouncing it off the specified bounds
+     *
+     * @param seconds The duration of the step (in seconds)
+     * @param width The half width of the bounds
+     * @param height The half height of the bounds
+     */
+    void step(float seconds, float width, float height) {
+
+        previousX = x;
+        previousY = y;
+
+        x += velocityX * seconds;
+        y += velocityY * seconds;
+
+        if (x < -width || x > width) {
+
+            x = Math.max(-width, Math.min(width, x));
+            velocityX = -velocityX;
+        }
+
+        if (y < -height || y > height) {
+
+            y = Math.max(-height, Math.min(height, y));
+            velocityY = -velocityY;
+        }
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.swarm;
+
+import net.tclemens.calcium.demo.simulation.Pool;
+import net.tclemens.calcium.demo.simulation.SimulationFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * This class is a plain Java benchmark comparing a step of a {@link Swarm} with the same step over one {@link Body}
+ * object per box, measuring the speedup of evaluating large swarms on more threads, and measuring the cost of
+ * collisions against a test of every pair. It has no Android dependencies and lives with the unit tests, so it is
+ * not part of the app, and runs on a desktop JVM against the compiled classes:
+ *
+ * <pre>
+ * ./gradlew :calcium-demo:compileDebugUnitTestJavaWithJavac
+ * java -cp calcium-demo/build/intermediates/classes/debug:calcium-demo/build/intermediates/classes/test/debug \
+ *         net.tclemens.calcium.demo.swarm.SwarmBenchmark
+ * </pre>
+ *
+ * @author Tim Clemens
+ */
+public final class SwarmBenchmark {
+
+    /** The numbers of boxes measured against one object per box */
+    private static final int[] COUNTS = {1000, 10000, 100000};
+
+    /** The numbers of boxes measured on more threads */
+    private static final int[] PARALLEL = {100000, 1000000};
+
+    /** The numbers of threads measured */
+    private static final int[] THREADS = {1, 2, 4, 8};
+
+    /** The numbers of colliding boxes measured */
+    private static final int[] COLLIDING = {1000, 10000, 50000};
+
+    /** The largest number of colliding boxes also measured by testing every pair */
+    private static final int PAIRS = 10000;
+
+    /** The share of the bounds covered by colliding boxes */
+    private static final float FILL = 0.25f;
+
+    /** The number of boxes times steps measured for each count, keeping the duration of each count similar */
+    private static final long WORK = 200000000L;
+
+    /** The duration of each step (in seconds) */
+    private static final float SECONDS = 1f / 120f;
+
+    /** The half width of the bounds */
+    private static final float WIDTH = 5f;
+
+    /** The half height of the bounds */
+    private static final float HEIGHT = 3f;
+
+    /** The largest speed of a box along each axis (in units per second), matching the swarm */
+    private static final float SPEED = 2f;
+
+    /** The random number generator used to place the boxes of one object per box */
+    private static final Random RANDOM = new Random();
+
+    private SwarmBenchmark() {
+    }
+
+    /**
+     * Run the benchmark and print one line per measurement
+     *
+     * @param arguments The command line arguments (ignored)
+     */
+    public static void main(String[] arguments) {
+
+        Pool[] pools = new Pool[THREADS.length];
+
+        for (int index = 0; index < THREADS.length; index++) {
+
+            pools[index] = SimulationFactory.createPool(THREADS[index]);
+        }
+
+        for (int count : COUNTS) {
+
+            int steps = (int) (WORK / count);
+
+            // Shuffled so that iteration order no longer follows allocation order, as after many transitions
+            List<Body> bodies = createBodies(count);
+            Collections.shuffle(bodies, new Random(count));
+
+            Swarm swarm = SwarmFactory.createSwarm(count, 1, WIDTH, HEIGHT, pools[0]);
+
+            measure(bodies, steps);
+            measure(swarm, steps, false);
+
+            double objects = (double) measure(bodies, steps) / steps / count;
+            double arrays = (double) measure(swarm, steps, false) / steps / count;
+
+            System.out.println(String.format(Locale.US, "boxes=%d objects=%.2fns/box arrays=%.2fns/box speedup=%.2fx",
+                    count, objects, arrays, objects / arrays));
+        }
+
+        for (int count : PARALLEL) {
+
+            int steps = (int) (WORK / count);
+            double serial = 0d;
+
+            for (int index = 0; index < pools.length; index++) {
+
+                Swarm swarm = SwarmFactory.createSwarm(count, 1, WIDTH, HEIGHT, pools[index]);
+
+                measure(swarm, steps, true);
+
+                double parallel = (double) measure(swarm, steps, true) / steps / count;
+
+                if (index == 0) {
+
+                    serial = parallel;
+                }
+
+                System.out.println(String.format(Locale.US, "boxes=%d threads=%d arrays=%.2fns/box speedup=%.2fx",
+                        count, pools[index].getThreads(), parallel, serial / parallel));
+            }
+        }
+
+        for (int count : COLLIDING) {
+
+            int steps = (int) Math.max(10L, WORK / 10L / count);
+            float size = (float) Math.sqrt(FILL * 4f * WIDTH * HEIGHT / count);
+            Swarm swarm = SwarmFactory.createColliding(count, 1, WIDTH, HEIGHT, size, pools[0]);
+
+            measure(swarm, steps, false);
+
+            double step = (double) measure(swarm, steps, false) / steps;
+            String pairs = "";
+
+            if (count <= PAIRS) {
+
+                swarm.interpolate(1f);
+                countPairs(swarm, size);
+
+                long start = System.nanoTime();
+                int overlaps = countPairs(swarm, size);
+
+                pairs = String.format(Locale.US, " pairs=%.3fms overlaps=%d", (System.nanoTime() - start) / 1e6d,
+                        overlaps);
+            }
+
+            System.out.println(String.format(Locale.US, "boxes=%d colliding=%.3fms/step %.2fns/box contacts=%d%s",
+                    count, step / 1e6d, step / count, swarm.getContacts(), pairs));
+        }
+    }
+
+    /**
+     * Create a list with one object per box, at random positions with random velocities within the bounds. This is
+     * the object-per-box layout that {@link Swarm} replaces.
+     *
+     * @param count The number of boxes
+     *
+     * @return The list of bodies
+     */
+    private static List<Body> createBodies(int count) {
+
+        List<Body> bodies = new ArrayList<>(count);
+
+        for (int index = 0; index < count; index++) {
+
+            float x = (RANDOM.nextFloat() * 2f - 1f) * WIDTH;
+            float y = (RANDOM.nextFloat() * 2f - 1f) * HEIGHT;
+            float velocityX = (RANDOM.nextFloat() * 2f - 1f) * SPEED;
+            float velocityY = (RANDOM.nextFloat() * 2f - 1f) * SPEED;
+
+            bodies.add(new Body(x, y, velocityX, velocityY));
+        }
+
+        return bodies;
+    }
+
+    /**
+     * Count the overlapping pairs of boxes of the specified size by testing every pair, the quadratic broadphase that
+     * the grid of a colliding swarm replaces
+     *
+     * @param swarm The swarm, interpolated to its last step
+     * @param size The size of each box
+     *
+     * @return The number of overlapping pairs
+     */
+    private static int countPairs(Swarm swarm, float size) {
+
+        int overlaps = 0;
+
+        for (int first = 0; first < swarm.getCount(); first++) {
+
+            for (int second = first + 1; second < swarm.getCount(); second++) {
+
+                if (Math.abs(swarm.getX(first) - swarm.getX(second)) < size
+                        && Math.abs(swarm.getY(first) - swarm.getY(second)) < size) {
+
+                    overlaps++;
+                }
+            }
+        }
+
+        return overlaps;
+    }
+
+    /**
+     * Measure the specified number of steps over one object per box
+     *
+     * @param bodies The bodies
+     * @param steps The number of steps
+     *
+     * @return The duration (in nanoseconds)
+     */
+    private static long measure(List<Body> bodies, int steps) {
+
+        long start = System.nanoTime();
+
+        for (int step = 0; step < steps; step++) {
+
+            for (int index = 0; index < bodies.size(); index++) {
+
+                bodies.get(index).step(SECONDS, WIDTH, HEIGHT);
+            }
+        }
+
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Measure the specified number of steps of a swarm
+     *
+     * @param swarm The swarm
+     * @param steps The number of steps
+     * @param interpolate Whether each step is followed by an interpolation of the translations
+     *
+     * @return The duration (in nanoseconds)
+     */
+    private static long measure(Swarm swarm, int steps, boolean interpolate) {
+
+        long start = System.nanoTime();
+
+        for (int step = 0; step < steps; step++) {
+
+            swarm.step(SECONDS);
+
+            if (interpolate) {
+
+                swarm.interpolate(0.5f);
+            }
+        }
+
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.swarm;
+
+import net.tclemens.calcium.demo.simulation.SimulationFactory;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This class tests the collisions and the culling of a {@link Swarm} against a test of every pair and every box. The
+ * seeded swarm is made of isolated groups of one or two boxes, so separating a pair never touches another box and
+ * the number of contacts found through the grid must match the number of overlapping pairs exactly.
+ *
+ * @author Tim Clemens
+ */
+public final class SwarmTest {
+
+    /** The seed of the random number generator placing the boxes */
+    private static final long SEED = 42L;
+
+    /** The number of groups of boxes */
+    private static final int GROUPS = 100;
+
+    /** The half width of the bounds */
+    private static final float WIDTH = 30f;
+
+    /** The half height of the bounds */
+    private static final float HEIGHT = 30f;
+
+    /** The size of each box */
+    private static final float SIZE = 0.5f;
+
+    /** The duration of a step (in seconds) */
+    private static final float SECONDS = 1f / 60f;
+
+    /** The number of random rectangles culled against */
+    private static final int RECTANGLES = 50;
+
+    /** The initial <tt>x</tt> position of each box */
+    private float[] x;
+
+    /** The initial <tt>y</tt> position of each box */
+    private float[] y;
+
+    /** The swarm under test */
+    private Swarm swarm;
+
+    /**
+     * Place the seeded groups of boxes at rest and create the swarm
+     */
+    @Before
+    public void setUp() {
+
+        Random random = new Random(SEED);
+        float[] centersX = new float[GROUPS];
+        float[] centersY = new float[GROUPS];
+        float[] placedX = new float[2 * GROUPS];
+        float[] placedY = new float[2 * GROUPS];
+        int count = 0;
+
+        for (int group = 0; group < GROUPS; group++) {
+
+            float centerX;
+            float centerY;
+
+            do {
+
+                centerX = createRandom(random, WIDTH - 2f * SIZE);
+                centerY = createRandom(random, HEIGHT - 2f * SIZE);
+
+            } while (isCrowded(centersX, centersY, group, centerX, centerY));
+
+            centersX[group] = centerX;
+            centersY[group] = centerY;
+            placedX[count] = centerX;
+            placedY[count] = centerY;
+            count++;
+
+            if (random.nextBoolean()) {
+
+                placedX[count] = centerX + createRandom(random, SIZE);
+                placedY[count] = centerY + createRandom(random, SIZE);
+                count++;
+            }
+        }
+
+        x = new float[count];
+        y = new float[count];
+
+        System.arraycopy(placedX, 0, x, 0, count);
+        System.arraycopy(placedY, 0, y, 0, count);
+
+        Grid grid = new Grid(WIDTH, HEIGHT, SIZE, count);
+
+        swarm = new Swarm(x.clone(), y.clone(), new float[count], new float[count], new int[count], WIDTH, HEIGHT,
+                SIZE, SimulationFactory.createPool(1), grid);
+    }
+
+    /**
+     * A step finds exactly the overlapping pairs found by testing every pair
+     */
+    @Test
+    public void testContactsMatchEveryPair() {
+
+        int expected = countOverlaps(x, y);
+
+        swarm.step(SECONDS);
+
+        assertTrue("No overlapping pairs", expected > 0);
+        assertEquals(expected, swarm.getContacts());
+    }
+
+    /**
+     * A step separates every overlapping pair
+     */
+    @Test
+    public void testStepSeparatesPairs() {
+
+        swarm.step(SECONDS);
+        swarm.interpolate(1f);
+
+        float[] steppedX = new float[x.length];
+        float[] steppedY = new float[y.length];
+
+        for (int index = 0; index < x.length; index++) {
+
+            steppedX[index] = swarm.getX(index);
+            steppedY[index] = swarm.getY(index);
+        }
+
+        assertEquals(0, countOverlaps(steppedX, steppedY));
+    }
+
+    /**
+     * Culling finds exactly the boxes inside each of a set of random rectangles, in ascending order, including
+     * rectangles reaching past the bounds
+     */
+    @Test
+    public void testCullMatchesEveryBox() {
+
+        Random random = new Random(SEED);
+        int[] visible = new int[x.length];
+
+        for (int rectangle = 0; rectangle < RECTANGLES; rectangle++) {
+
+            float left = createRandom(random, WIDTH + 1f);
+            float bottom = createRandom(random, HEIGHT + 1f);
+            float right = left + random.nextFloat() * WIDTH;
+            float top = bottom + random.nextFloat() * HEIGHT;
+            int count = swarm.cull(left, bottom, right, top, visible);
+            int[] found = new int[count];
+
+            System.arraycopy(visible, 0, found, 0, count);
+
+            assertArrayEquals("Rectangle " + rectangle, findInside(left, bottom, right, top), found);
+        }
+    }
+
+    /**
+     * Culling the whole bounds finds every box
+     */
+    @Test
+    public void testCullFindsEveryBoxInBounds() {
+
+        int[] visible = new int[x.length];
+
+        assertEquals(x.length, swarm.cull(-WIDTH, -HEIGHT, WIDTH, HEIGHT, visible));
+    }
+
+    /**
+     * Find the boxes at rest inside the specified rectangle by testing every box
+     *
+     * @param left The left edge of the rectangle
+     * @param bottom The bottom edge of the rectangle
+     * @param right The right edge of the rectangle
+     * @param top The top edge of the rectangle
+     *
+     * @return The boxes inside the rectangle, in ascending order
+     */
+    private int[] findInside(float left, float bottom, float right, float top) {
+
+        int[] inside = new int[x.length];
+        int count = 0;
+
+        for (int index = 0; index < x.length; index++) {
+
+            if (x[index] >= left && x[index] <= right && y[index] >= bottom && y[index] <= top) {
+
+                inside[count++] = index;
+            }
+        }
+
+        int[] found = new int[count];
+
+        System.arraycopy(inside, 0, found, 0, count);
+
+        return found;
+    }
+
+    /**
+     * Count the overlapping pairs of boxes by testing every pair
+     *
+     * @param x The <tt>x</tt> position of each box
+     * @param y The <tt>y</tt> position of each box
+     *
+     * @return The number of overlapping pairs
+     */
+    private static int countOverlaps(float[] x, float[] y) {
+
+        int found = 0;
+
+        for (int first = 0; first < x.length; first++) {
+
+            for (int second = first + 1; second < x.length; second++) {
+
+                if (Math.abs(x[second] - x[first]) < SIZE && Math.abs(y[second] - y[first]) < SIZE) {
+
+                    found++;
+                }
+            }
+        }
+
+        return found;
+    }
+
+    /**
+     * Check whether the specified center is too close to a previous center for its group to stay isolated. Each box
+     * lies within a box size of its center, and is pushed at most half a box size, so centers four box sizes apart
+     * keep the boxes of different groups apart.
+     *
+     * @param centersX The <tt>x</tt> position of each previous center
+     * @param centersY The <tt>y</tt> position of each previous center
+     * @param count The number of previous centers
+     * @param x The <tt>x</tt> position of the center
+     * @param y The <tt>y</tt> position of the center
+     *
+     * @return Whether the center is too close
+     */
+    private static boolean isCrowded(float[] centersX, float[] centersY, int count, float x, float y) {
+
+        for (int index = 0; index < count; index++) {
+
+            if (Math.abs(centersX[index] - x) < 4f * SIZE && Math.abs(centersY[index] - y) < 4f * SIZE) {
+
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Create a random value between the negative and positive specified bound
+     *
+     * @param random The random number generator
+     * @param bound The bound
+     *
+     * @return The value
+     */
+    private static float createRandom(Random random, float bound) {
+
+        return (random.nextFloat() * 2f - 1f) * bound;
+    }
+}
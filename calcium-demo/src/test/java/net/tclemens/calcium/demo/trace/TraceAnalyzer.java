@@ -0,0 +1,563 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.trace;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * This class is a plain Java command line analyzer of a {@link Trace} pulled from a device. It lives with the unit
+ * tests, so it is not part of the app, and runs on a desktop JVM against the compiled classes, for example:
+ *
+ * <pre>
+ * adb exec-out run-as net.tclemens.calcium.demo cat files/trace.bin &gt; trace.bin
+ * ./gradlew :calcium-demo:compileDebugUnitTestJavaWithJavac
+ * java -cp calcium-demo/build/intermediates/classes/debug:calcium-demo/build/intermediates/classes/test/debug \
+ *         net.tclemens.calcium.demo.trace.TraceAnalyzer trace.bin 100
+ * </pre>
+ *
+ * It prints the most recent records as a timeline, percentiles of the frame and transition timings, the share of the
+ * batches of each state unchanged from its previous frame, and the worst frames of the trace.
+ *
+ * @author Tim Clemens
+ */
+public final class TraceAnalyzer {
+
+    /** The default number of records in the timeline */
+    private static final int TIMELINE = 50;
+
+    /** The number of worst frames printed */
+    private static final int WORST = 10;
+
+    /** The number of nanoseconds in a millisecond */
+    private static final double NANOSECONDS = 1000000d;
+
+    /** The name of each cause, indexed by cause */
+    private static final String[] CAUSES = {"none", "touch", "animation", "action", "view"};
+
+    private TraceAnalyzer() {
+    }
+
+    /**
+     * Analyze a trace and print the analysis, or print the usage if the arguments are not valid and an error if the
+     * trace cannot be read
+     *
+     * @param arguments The path of the trace, optionally followed by the number of records in the timeline
+     */
+    public static void main(String[] arguments) {
+
+        int timeline = arguments.length == 1 ? TIMELINE : arguments.length == 2 ? parseCount(arguments[1]) : -1;
+
+        if (timeline < 0) {
+
+            System.err.println("usage: TraceAnalyzer <trace> [records in the timeline, " + TIMELINE + " by default]");
+            System.err.println("example: TraceAnalyzer trace.bin 100");
+            System.exit(2);
+        }
+
+        ByteBuffer buffer;
+        String error;
+
+        try {
+
+            buffer = read(new File(arguments[0]));
+            error = check(buffer);
+
+        } catch (IOException e) {
+
+            buffer = null;
+            error = e.getMessage();
+        }
+
+        if (error != null) {
+
+            System.err.println("error: " + arguments[0] + ": " + error);
+            System.exit(1);
+        }
+
+        String[] names = readNames(buffer);
+        List<Record> records = readRecords(buffer, names);
+
+        printTimeline(records, timeline);
+        printPercentiles(records);
+        printUnchanged(records, names);
+        printWorst(records);
+    }
+
+    /**
+     * Parse the specified count
+     *
+     * @param argument The count
+     *
+     * @return The count, or <tt>-1</tt> if it is not a number
+     */
+    private static int parseCount(String argument) {
+
+        try {
+
+            return Integer.parseInt(argument);
+
+        } catch (NumberFormatException e) {
+
+            return -1;
+        }
+    }
+
+    /**
+     * Read the specified trace file into a buffer
+     *
+     * @param file The trace file
+     *
+     * @return The buffer
+     *
+     * @throws IOException If the file cannot be read, or is too large to be a trace
+     */
+    static ByteBuffer read(File file) throws IOException {
+
+        RandomAccessFile access = new RandomAccessFile(file, "r");
+
+        try {
+
+            if (access.length() > Integer.MAX_VALUE) {
+
+                throw new IOException("Too large for a trace: " + access.length() + " bytes");
+            }
+
+            return access.getChannel().map(FileChannel.MapMode.READ_ONLY, 0L, access.length());
+
+        } finally {
+
+            access.close();
+        }
+    }
+
+    /**
+     * Check that the specified buffer holds a complete trace of the current version, so that its names and records
+     * can be read without reading past its end
+     *
+     * @param buffer The buffer
+     *
+     * @return The reason the buffer does not hold a trace, or <tt>null</tt> if it does
+     */
+    static String check(ByteBuffer buffer) {
+
+        if (buffer.limit() < Trace.getSize(0)) {
+
+            return "Too short for a trace: " + buffer.limit() + " bytes";
+        }
+
+        if (buffer.getInt(0) != Trace.MAGIC) {
+
+            return "Not a trace";
+        }
+
+        if (buffer.getInt(4) != Trace.VERSION) {
+
+            return "Not a version " + Trace.VERSION + " trace: version " + buffer.getInt(4);
+        }
+
+        if (buffer.getInt(8) != Trace.RECORD) {
+
+            return "Record size out of range: " + buffer.getInt(8);
+        }
+
+        int capacity = buffer.getInt(12);
+
+        if (capacity < 1 || Trace.getSize(0) + (long) capacity * Trace.RECORD > buffer.limit()) {
+
+            return "Capacity out of range: " + capacity + " records in " + buffer.limit() + " bytes";
+        }
+
+        if (buffer.getLong(Trace.COUNT) < 0L) {
+
+            return "Record count out of range: " + buffer.getLong(Trace.COUNT);
+        }
+
+        int used = buffer.getInt(Trace.USED);
+
+        if (used < 0 || used > Trace.NAMES) {
+
+            return "Name count out of range: " + used;
+        }
+
+        for (int index = 0; index < used; index++) {
+
+            int length = buffer.get(Trace.HEADER + index * Trace.NAME) & 0xFF;
+
+            if (length > Trace.NAME - 1) {
+
+                return "Name length out of range: " + length;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Read the state class names of a trace
+     *
+     * @param buffer The trace
+     *
+     * @return The names, indexed by name index
+     */
+    static String[] readNames(ByteBuffer buffer) {
+
+        String[] names = new String[buffer.getInt(Trace.USED)];
+
+        for (int index = 0; index < names.length; index++) {
+
+            int offset = Trace.HEADER + index * Trace.NAME;
+            byte[] bytes = new byte[buffer.get(offset)];
+
+            for (int position = 0; position < bytes.length; position++) {
+
+                bytes[position] = buffer.get(offset + 1 + position);
+            }
+
+            names[index] = new String(bytes, Trace.UTF8);
+        }
+
+        return names;
+    }
+
+    /**
+     * Read the records retained in the ring of a trace, oldest first
+     *
+     * @param buffer The trace
+     * @param names The state class names of the trace
+     *
+     * @return The records
+     */
+    static List<Record> readRecords(ByteBuffer buffer, String[] names) {
+
+        int capacity = buffer.getInt(12);
+        long count = buffer.getLong(Trace.COUNT);
+        List<Record> records = new ArrayList<>((int) Math.min(count, capacity));
+
+        for (long index = Math.max(0L, count - capacity); index < count; index++) {
+
+            int offset = Trace.HEADER + Trace.NAMES * Trace.NAME + (int) (index % capacity) * Trace.RECORD;
+
+            records.add(new Record(buffer.getLong(offset), buffer.get(offset + 8),
+                    getName(names, buffer.get(offset + 9)), getName(names, buffer.get(offset + 10)),
+                    buffer.get(offset + 11), buffer.getInt(offset + 12), buffer.getInt(offset + 16),
+                    buffer.getInt(offset + 20), buffer.getInt(offset + 28), buffer.getInt(offset + 24)));
+        }
+
+        return records;
+    }
+
+    /**
+     * Print the most recent records as a timeline, relative to the first record printed
+     *
+     * @param records The records
+     * @param count The number of records to print
+     */
+    private static void printTimeline(List<Record> records, int count) {
+
+        List<Record> recent = records.subList(Math.max(0, records.size() - count), records.size());
+
+        System.out.println("timeline (" + recent.size() + " of " + records.size() + " records)");
+
+        for (Record record : recent) {
+
+            double time = (record.time - recent.get(0).time) / NANOSECONDS;
+
+            if (record.kind == Trace.FRAME) {
+
+                System.out.println(String.format(Locale.US,
+                        "  %10.3fms frame      %-16s render=%.3fms interval=%.3fms batches=%d changed=%d"
+                                + " allocations=%d",
+                        time, record.state, record.duration / NANOSECONDS, record.interval / NANOSECONDS,
+                        record.batches, record.changed, record.allocations));
+
+            } else {
+
+                System.out.println(String.format(Locale.US,
+                        "  %10.3fms transition %-16s -> %s cause=%s update=%.3fms allocations=%d",
+                        time, record.state, record.target, getCause(record.cause), record.duration / NANOSECONDS,
+                        record.allocations));
+            }
+        }
+    }
+
+    /**
+     * Print percentiles of the frame intervals, render durations, and update durations of each cause of transition
+     *
+     * @param records The records
+     */
+    private static void printPercentiles(List<Record> records) {
+
+        List<Long> intervals = new ArrayList<>();
+        List<Long> renders = new ArrayList<>();
+
+        for (Record record : records) {
+
+            if (record.kind == Trace.FRAME) {
+
+                if (record.interval > 0) {
+
+                    intervals.add((long) record.interval);
+                }
+
+                renders.add((long) record.duration);
+            }
+        }
+
+        System.out.println("percentiles");
+
+        printPercentiles("frame interval", intervals);
+        printPercentiles("frame render", renders);
+
+        for (byte cause = 0; cause < CAUSES.length; cause++) {
+
+            List<Long> updates = new ArrayList<>();
+
+            for (Record record : records) {
+
+                if (record.kind == Trace.TRANSITION && record.cause == cause) {
+
+                    updates.add((long) record.duration);
+                }
+            }
+
+            if (!updates.isEmpty()) {
+
+                printPercentiles(CAUSES[cause] + " update", updates);
+            }
+        }
+    }
+
+    /**
+     * Print the percentiles of the specified durations
+     *
+     * @param label The label of the durations
+     * @param durations The durations (in nanoseconds)
+     */
+    private static void printPercentiles(String label, List<Long> durations) {
+
+        if (durations.isEmpty()) {
+
+            return;
+        }
+
+        long[] sorted = new long[durations.size()];
+
+        for (int index = 0; index < sorted.length; index++) {
+
+            sorted[index] = durations.get(index);
+        }
+
+        Arrays.sort(sorted);
+
+        System.out.println(String.format(Locale.US, "  %-18s count=%d p50=%.3fms p90=%.3fms p99=%.3fms max=%.3fms",
+                label, sorted.length, getPercentile(sorted, 50d) / NANOSECONDS,
+                getPercentile(sorted, 90d) / NANOSECONDS, getPercentile(sorted, 99d) / NANOSECONDS,
+                sorted[sorted.length - 1] / NANOSECONDS));
+    }
+
+    /**
+     * Print, for each state, the frames and batches unchanged from the previous frame of the state. Uploading and
+     * drawing them again is the work an engine diffing consecutive frames could skip.
+     *
+     * @param records The records
+     * @param names The state class names of the trace
+     */
+    private static void printUnchanged(List<Record> records, String[] names) {
+
+        System.out.println("unchanged");
+
+        for (String name : names) {
+
+            long frames = 0L;
+            long same = 0L;
+            long batches = 0L;
+            long changed = 0L;
+
+            for (Record record : records) {
+
+                if (record.kind == Trace.FRAME && record.state.equals(name)) {
+
+                    frames++;
+                    same += record.changed == 0 ? 1L : 0L;
+                    batches += record.batches;
+                    changed += record.changed;
+                }
+            }
+
+            if (frames > 0L) {
+
+                System.out.println(String.format(Locale.US, "  %-18s frames=%d/%d batches=%d/%d (%.1f%%)",
+                        name, same, frames, batches - changed, batches,
+                        batches == 0L ? 0d : 100d * (batches - changed) / batches));
+            }
+        }
+    }
+
+    /**
+     * Print the frames with the longest intervals
+     *
+     * @param records The records
+     */
+    private static void printWorst(List<Record> records) {
+
+        List<Record> frames = new ArrayList<>();
+
+        for (Record record : records) {
+
+            if (record.kind == Trace.FRAME) {
+
+                frames.add(record);
+            }
+        }
+
+        Collections.sort(frames, new Comparator<Record>() {
+
+            @Override
+            public int compare(Record first, Record second) {
+
+                return second.interval < first.interval ? -1 : (second.interval == first.interval ? 0 : 1);
+            }
+        });
+
+        System.out.println("worst frames");
+
+        for (Record frame : frames.subList(0, Math.min(WORST, frames.size()))) {
+
+            double time = (frame.time - records.get(0).time) / NANOSECONDS;
+
+            System.out.println(String.format(Locale.US,
+                    "  %10.3fms %-16s interval=%.3fms render=%.3fms batches=%d allocations=%d",
+                    time, frame.state, frame.interval / NANOSECONDS, frame.duration / NANOSECONDS, frame.batches,
+                    frame.allocations));
+        }
+    }
+
+    /**
+     * Get the specified percentile of sorted values
+     *
+     * @param sorted The sorted values
+     * @param percentile The percentile (between <tt>0</tt> and <tt>100</tt>)
+     *
+     * @return The percentile
+     */
+    private static long getPercentile(long[] sorted, double percentile) {
+
+        int index = (int) Math.ceil(percentile / 100d * sorted.length) - 1;
+
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    /**
+     * Get the state class name with the specified name index
+     *
+     * @param names The state class names of the trace
+     * @param index The name index
+     *
+     * @return The name
+     */
+    private static String getName(String[] names, byte index) {
+
+        int unsigned = index & 0xFF;
+
+        return unsigned < names.length ? names[unsigned] : "?";
+    }
+
+    /**
+     * Get the name of the specified cause
+     *
+     * @param cause The cause
+     *
+     * @return The name
+     */
+    private static String getCause(byte cause) {
+
+        return cause >= 0 && cause < CAUSES.length ? CAUSES[cause] : "?";
+    }
+
+    /**
+     * This class represents a record read from a trace
+     */
+    static final class Record {
+
+        /** The time of the record (in nanoseconds) */
+        final long time;
+
+        /** The kind of the record */
+        final byte kind;
+
+        /** The class name of the state */
+        final String state;
+
+        /** The class name of the state after a transition */
+        final String target;
+
+        /** The cause of a transition */
+        final byte cause;
+
+        /** The duration of the render or update (in nanoseconds) */
+        final int duration;
+
+        /** The time since the previous frame (in nanoseconds) */
+        final int interval;
+
+        /** The number of batches in a frame */
+        final int batches;
+
+        /** The number of batches that differ from the previous frame of the state */
+        final int changed;
+
+        /** The number of objects allocated by the render or update */
+        final int allocations;
+
+        /**
+         * @param time The time of the record (in nanoseconds)
+         * @param kind The kind of the record
+         * @param state The class name of the state
+         * @param target The class name of the state after a transition
+         * @param cause The cause of a transition
+         * @param duration The duration of the render or update (in nanoseconds)
+         * @param interval The time since the previous frame (in nanoseconds)
+         * @param batches The number of batches in a frame
+         * @param changed The number of batches that differ from the previous frame of the state
+         * @param allocations The number of objects allocated by the render or update
+         */
+        private Record(long time, byte kind, String state, String target, byte cause, int duration, int interval,
+                       int batches, int changed, int allocations) {
+
+            this.time = time;
+            this.kind = kind;
+            this.state = state;
+            this.target = target;
+            this.cause = cause;
+            this.duration = duration;
+            this.interval = interval;
+            this.batches = batches;
+            this.changed = changed;
+            this.allocations = allocations;
+        }
+    }
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright (C) 2017 Tim Clemens
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tclemens.calcium.demo.trace;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This class tests that the records written by a {@link Trace} are read back by the {@link TraceAnalyzer}, and that
+ * the analyzer rejects files that do not hold a complete trace
+ *
+ * @author Tim Clemens
+ */
+public final class TraceTest {
+
+    /** The number of records in the ring of each trace */
+    private static final int CAPACITY = 4;
+
+    /** The trace file of each test */
+    private File file;
+
+    /**
+     * Create an empty trace file
+     *
+     * @throws IOException If the file cannot be created
+     */
+    @Before
+    public void setUp() throws IOException {
+
+        file = File.createTempFile("trace", ".bin");
+    }
+
+    /**
+     * Delete the trace file
+     */
+    @After
+    public void tearDown() {
+
+        file.delete();
+    }
+
+    /**
+     * Frames and transitions are read back with their states, causes and timings
+     *
+     * @throws IOException If the trace cannot be written or read
+     */
+    @Test
+    public void testRoundTrip() throws IOException {
+
+        Trace trace = TraceFactory.createTrace(file, CAPACITY);
+
+        trace.frame("LeftState", 1000L, 3, 1, 2);
+        trace.transition("LeftState", "RightState", Trace.TOUCH, 500L, 4);
+
+        ByteBuffer buffer = TraceAnalyzer.read(file);
+
+        assertNull(TraceAnalyzer.check(buffer));
+
+        String[] names = TraceAnalyzer.readNames(buffer);
+        List<TraceAnalyzer.Record> records = TraceAnalyzer.readRecords(buffer, names);
+
+        assertEquals(2, names.length);
+        assertEquals("LeftState", names[0]);
+        assertEquals("RightState", names[1]);
+        assertEquals(2, records.size());
+
+        TraceAnalyzer.Record frame = records.get(0);
+
+        assertEquals(Trace.FRAME, frame.kind);
+        assertEquals("LeftState", frame.state);
+        assertEquals(1000L, frame.duration);
+        assertEquals(0L, frame.interval);
+        assertEquals(3L, frame.batches);
+        assertEquals(1L, frame.changed);
+        assertEquals(2L, frame.allocations);
+
+        TraceAnalyzer.Record transition = records.get(1);
+
+        assertEquals(Trace.TRANSITION, transition.kind);
+        assertEquals("LeftState", transition.state);
+        assertEquals("RightState", transition.target);
+        assertEquals(Trace.TOUCH, transition.cause);
+        assertEquals(500L, transition.duration);
+        assertEquals(4L, transition.allocations);
+        assertTrue(transition.time >= frame.time);
+    }
+
+    /**
+     * Only the most recent records are retained once the ring wraps, oldest first
+     *
+     * @throws IOException If the trace cannot be written or read
+     */
+    @Test
+    public void testWrap() throws IOException {
+
+        Trace trace = TraceFactory.createTrace(file, CAPACITY);
+
+        for (int batches = 0; batches < CAPACITY + 2; batches++) {
+
+            trace.frame("SwarmState", 1000L, batches, 0, 0);
+        }
+
+        ByteBuffer buffer = TraceAnalyzer.read(file);
+        List<TraceAnalyzer.Record> records = TraceAnalyzer.readRecords(buffer, TraceAnalyzer.readNames(buffer));
+
+        assertEquals(CAPACITY, records.size());
+
+        for (int index = 0; index < CAPACITY; index++) {
+
+            assertEquals(index + 2L, records.get(index).batches);
+        }
+    }
+
+    /**
+     * A resumed trace does not record the pause as the interval of the next frame
+     *
+     * @throws IOException If the trace cannot be written or read
+     */
+    @Test
+    public void testResume() throws IOException {
+
+        Trace trace = TraceFactory.createTrace(file, CAPACITY);
+
+        trace.frame("LeftState", 1000L, 1, 0, 0);
+        trace.resume();
+        trace.frame("LeftState", 1000L, 1, 0, 0);
+
+        ByteBuffer buffer = TraceAnalyzer.read(file);
+        List<TraceAnalyzer.Record> records = TraceAnalyzer.readRecords(buffer, TraceAnalyzer.readNames(buffer));
+
+        assertEquals(0L, records.get(1).interval);
+    }
+
+    /**
+     * A file shorter than the header, or than the records of its capacity, is rejected
+     *
+     * @throws IOException If the trace cannot be written or read
+     */
+    @Test
+    public void testTruncated() throws IOException {
+
+        TraceFactory.createTrace(file, CAPACITY);
+
+        resize(Trace.getSize(CAPACITY) - 1L);
+
+        assertNotNull(TraceAnalyzer.check(TraceAnalyzer.read(file)));
+
+        resize(Trace.HEADER);
+
+        assertNotNull(TraceAnalyzer.check(TraceAnalyzer.read(file)));
+
+        resize(0L);
+
+        assertNotNull(TraceAnalyzer.check(TraceAnalyzer.read(file)));
+    }
+
+    /**
+     * A file with a corrupt header is rejected
+     *
+     * @throws IOException If the trace cannot be written or read
+     */
+    @Test
+    public void testCorrupt() throws IOException {
+
+        int[] offsets = {0, 4, 8, 12, Trace.USED};
+
+        for (int offset : offsets) {
+
+            TraceFactory.createTrace(file, CAPACITY);
+
+            write(offset, -1);
+
+            assertNotNull(TraceAnalyzer.check(TraceAnalyzer.read(file)));
+        }
+    }
+
+    /**
+     * Change the length of the trace file
+     *
+     * @param length The length (in bytes)
+     *
+     * @throws IOException If the file cannot be changed
+     */
+    private void resize(long length) throws IOException {
+
+        RandomAccessFile access = new RandomAccessFile(file, "rw");
+
+        try {
+
+            access.setLength(length);
+
+        } finally {
+
+            access.close();
+        }
+    }
+
+    /**
+     * Overwrite an integer in the trace file
+     *
+     * @param offset The offset of the integer (in bytes)
+     * @param value The value
+     *
+     * @throws IOException If the file cannot be changed
+     */
+    private void write(int offset, int value) throws IOException {
+
+        RandomAccessFile access = new RandomAccessFile(file, "rw");
+
+        try {
+
+            access.seek(offset);
+            access.writeInt(value);
+
+        } finally {
+
+            access.close();
+        }
+    }
+}